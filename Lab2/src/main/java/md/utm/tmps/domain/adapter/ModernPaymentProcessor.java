@@ -1,23 +1,33 @@
 package md.utm.tmps.domain.adapter;
 
-import java.util.UUID;
+import md.utm.tmps.utilities.IdGenerator;
+import md.utm.tmps.utilities.TimeOrderedIdGenerator;
 
 // Adapter Pattern
 // Modern payment processor that implements the interface natively
 public class ModernPaymentProcessor implements PaymentProcessor {
-    private String lastTransactionId;
+    private final IdGenerator idGenerator;
+    private long lastTransactionId; // 0 until the first payment; rendered on demand
+
+    public ModernPaymentProcessor() {
+        this(TimeOrderedIdGenerator.getDefault());
+    }
+
+    public ModernPaymentProcessor(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
 
     @Override
     public boolean processPayment(double amount, String customerName) {
-        this.lastTransactionId = "TXN-" + UUID.randomUUID().toString().substring(0, 8);
+        this.lastTransactionId = idGenerator.nextId();
         System.out.printf("Modern System: Processing payment of $%.2f for %s\n", amount, customerName);
-        System.out.println("Transaction ID: " + lastTransactionId);
+        System.out.println("Transaction ID: " + getTransactionId());
         return true;
     }
 
     @Override
     public String getTransactionId() {
-        return lastTransactionId;
+        return lastTransactionId == 0 ? null : "TXN-" + Long.toString(lastTransactionId, 36).toUpperCase();
     }
 
     @Override
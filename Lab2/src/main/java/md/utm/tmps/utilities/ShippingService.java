@@ -1,13 +1,20 @@
 package md.utm.tmps.utilities;
 
-import java.util.UUID;
-
 // Facade Pattern - Subsystem
 // Handles shipping and delivery
 public class ShippingService {
+    private final IdGenerator idGenerator;
+
+    public ShippingService() {
+        this(TimeOrderedIdGenerator.getDefault());
+    }
+
+    public ShippingService(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
 
     public String scheduleDelivery(String customerName, String address, String itemDescription) {
-        String trackingNumber = "SHIP-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String trackingNumber = "SHIP-" + Long.toString(idGenerator.nextId(), 36).toUpperCase();
 
         System.out.println("   Creating shipping label...");
         System.out.println("   Customer: " + customerName);
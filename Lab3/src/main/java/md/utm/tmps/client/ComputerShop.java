@@ -163,6 +163,11 @@ public class ComputerShop {
         // Progress order (triggers observers)
         String orderId = order1.getCreatedOrder().getOrderId();
 
+        UpdateOrderStatusCommand processCommand = new UpdateOrderStatusCommand(
+                orderManager, orderId, Order.OrderStatus.PROCESSING
+        );
+        commandInvoker.executeCommand(processCommand);
+
         UpdateOrderStatusCommand shipCommand = new UpdateOrderStatusCommand(
                 orderManager, orderId, Order.OrderStatus.SHIPPED
         );
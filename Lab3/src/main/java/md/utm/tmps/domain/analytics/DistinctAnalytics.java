@@ -0,0 +1,130 @@
+package md.utm.tmps.domain.analytics;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Distinct customers and distinct computer configurations per day and per pricing strategy
+// Each bucket holds two HyperLogLog sketches, so a count costs the same memory whether a
+// bucket saw ten orders or ten million. Ranges of days are answered by merging sketches.
+// Days are UTC, matching the timestamps of the persistence layer; old days are pruned.
+public class DistinctAnalytics {
+    public static final int DEFAULT_RETAINED_DAYS = 30;
+
+    private final int precision;
+    private final int retainedDays;
+    private final ConcurrentSkipListMap<LocalDate, Sketches> byDay;
+    private final Map<String, Sketches> byStrategy;
+
+    // Customer and configuration sketches of one bucket
+    private static final class Sketches {
+        private final HyperLogLog customers;
+        private final HyperLogLog configurations;
+
+        private Sketches(int precision) {
+            this.customers = new HyperLogLog(precision);
+            this.configurations = new HyperLogLog(precision);
+        }
+    }
+
+    public DistinctAnalytics() {
+        this(HyperLogLog.DEFAULT_PRECISION, DEFAULT_RETAINED_DAYS);
+    }
+
+    public DistinctAnalytics(int precision, int retainedDays) {
+        this.precision = precision;
+        this.retainedDays = Math.max(1, retainedDays);
+        this.byDay = new ConcurrentSkipListMap<>();
+        this.byStrategy = new ConcurrentHashMap<>();
+    }
+
+    public void record(long timestampMillis, String pricingStrategy, String customerEmail, String configuration) {
+        // Both sketches of a bucket see the same hashes, so hash each value once
+        long customerHash = HyperLogLog.hash(normalize(customerEmail));
+        long configurationHash = HyperLogLog.hash(configuration == null ? "" : configuration);
+
+        Sketches day = dayBucket(dayOf(timestampMillis));
+        if (day != null) {
+            day.customers.addHash(customerHash);
+            day.configurations.addHash(configurationHash);
+        }
+
+        Sketches strategy = byStrategy.computeIfAbsent(
+                pricingStrategy == null ? "None" : pricingStrategy, s -> new Sketches(precision));
+        strategy.customers.addHash(customerHash);
+        strategy.configurations.addHash(configurationHash);
+    }
+
+    public long getDistinctCustomers(LocalDate day) {
+        return getDistinctCustomers(day, day);
+    }
+
+    public long getDistinctConfigurations(LocalDate day) {
+        return getDistinctConfigurations(day, day);
+    }
+
+    // Inclusive range of days; a customer ordering on several days counts once
+    public long getDistinctCustomers(LocalDate from, LocalDate to) {
+        HyperLogLog merged = new HyperLogLog(precision);
+        byDay.subMap(from, true, to, true).values().forEach(s -> merged.merge(s.customers));
+        return merged.estimate();
+    }
+
+    public long getDistinctConfigurations(LocalDate from, LocalDate to) {
+        HyperLogLog merged = new HyperLogLog(precision);
+        byDay.subMap(from, true, to, true).values().forEach(s -> merged.merge(s.configurations));
+        return merged.estimate();
+    }
+
+    public long getDistinctCustomers(String pricingStrategy) {
+        Sketches sketches = byStrategy.get(pricingStrategy);
+        return sketches == null ? 0 : sketches.customers.estimate();
+    }
+
+    public long getDistinctConfigurations(String pricingStrategy) {
+        Sketches sketches = byStrategy.get(pricingStrategy);
+        return sketches == null ? 0 : sketches.configurations.estimate();
+    }
+
+    public List<String> getPricingStrategies() {
+        return List.copyOf(new TreeMap<>(byStrategy).keySet());
+    }
+
+    public List<LocalDate> getDays() {
+        return List.copyOf(byDay.keySet());
+    }
+
+    public long estimatedBytes() {
+        long perBucket = 2 * new HyperLogLog(precision).estimatedBytes();
+        return (byDay.size() + byStrategy.size()) * perBucket;
+    }
+
+    // Null for a late event whose day has already been pruned
+    private Sketches dayBucket(LocalDate date) {
+        Sketches day = byDay.get(date);
+        if (day != null) {
+            return day;
+        }
+        if (!byDay.isEmpty() && date.isBefore(byDay.lastKey().minusDays(retainedDays - 1))) {
+            return null;
+        }
+        day = byDay.computeIfAbsent(date, d -> new Sketches(precision));
+        byDay.headMap(byDay.lastKey().minusDays(retainedDays - 1), false).clear();
+        return day;
+    }
+
+    public static LocalDate dayOf(long timestampMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneOffset.UTC);
+    }
+
+    // Emails are case-insensitive, so Alice@Mail.com and alice@mail.com are one customer
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
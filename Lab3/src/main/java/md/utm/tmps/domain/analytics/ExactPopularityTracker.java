@@ -0,0 +1,47 @@
+package md.utm.tmps.domain.analytics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// One striped counter per distinct product - exact, but memory grows with every product name
+public class ExactPopularityTracker implements PopularityTracker {
+    // Rough per-entry cost: map node, LongAdder and its cell
+    private static final int ENTRY_BYTES = 96;
+
+    private final Map<String, LongAdder> counts;
+
+    public ExactPopularityTracker() {
+        this.counts = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void record(String product, long count) {
+        counts.computeIfAbsent(product, name -> new LongAdder()).add(count);
+    }
+
+    @Override
+    public List<ProductCount> topProducts(int limit) {
+        return counts.entrySet().stream()
+                .map(entry -> new ProductCount(entry.getKey(), entry.getValue().sum(), 0))
+                .sorted(Comparator.comparingLong(ProductCount::count).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (String product : counts.keySet()) {
+            bytes += ENTRY_BYTES + 40 + product.length();
+        }
+        return bytes;
+    }
+
+    @Override
+    public String getMode() {
+        return "Exact";
+    }
+}
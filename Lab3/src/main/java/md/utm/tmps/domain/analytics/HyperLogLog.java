@@ -0,0 +1,100 @@
+package md.utm.tmps.domain.analytics;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// HyperLogLog distinct-value sketch (Flajolet et al.) with linear counting for small sets
+// 2^precision registers give a standard error of about 1.04 / sqrt(2^precision):
+// precision 12 -> 4096 registers, ~1.6%. Two sketches of the same precision merge
+// by taking the register-wise maximum, so per-bucket sketches can be combined freely.
+// A register only ever grows, so concurrent adds need a CAS only when they raise it.
+public class HyperLogLog {
+    public static final int DEFAULT_PRECISION = 12;
+
+    private final int precision;
+    private final int registerCount;
+    private final AtomicIntegerArray registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("Precision must be between 4 and 16: " + precision);
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.registers = new AtomicIntegerArray(registerCount);
+    }
+
+    public void add(String value) {
+        if (value != null) {
+            addHash(hash(value));
+        }
+    }
+
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Position of the first 1-bit in the remaining bits (the sentinel caps the rank)
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        int current = registers.get(index);
+        while (rank > current && !registers.compareAndSet(index, current, rank)) {
+            current = registers.get(index);
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of precision "
+                    + precision + " and " + other.precision);
+        }
+        for (int i = 0; i < registerCount; i++) {
+            int rank = other.registers.get(i);
+            int current = registers.get(i);
+            while (rank > current && !registers.compareAndSet(i, current, rank)) {
+                current = registers.get(i);
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < registerCount; i++) {
+            int rank = registers.get(i);
+            sum += 1.0 / (1L << rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / registerCount);
+        double estimate = alpha * registerCount * registerCount / sum;
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public long estimatedBytes() {
+        return (long) registerCount * Integer.BYTES;
+    }
+
+    // 64-bit FNV-1a over the characters, finished with the MurmurHash3 mixer
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
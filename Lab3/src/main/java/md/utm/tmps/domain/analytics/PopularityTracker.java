@@ -0,0 +1,24 @@
+package md.utm.tmps.domain.analytics;
+
+import java.util.List;
+
+// Strategy for counting orders per product
+// The exact tracker grows with the catalog; the Space-Saving tracker stays in fixed memory
+public interface PopularityTracker {
+    void record(String product, long count);
+
+    // Most ordered products first
+    List<ProductCount> topProducts(int limit);
+
+    long estimatedBytes();
+
+    String getMode();
+
+    static PopularityTracker exact() {
+        return new ExactPopularityTracker();
+    }
+
+    static PopularityTracker approximate(int capacity) {
+        return new SpaceSavingPopularityTracker(capacity);
+    }
+}
@@ -0,0 +1,9 @@
+package md.utm.tmps.domain.analytics;
+
+// A product's order count as reported by a PopularityTracker
+// The true count lies in [count - maxError, count]; maxError is 0 for exact tracking
+public record ProductCount(String product, long count, long maxError) {
+    public long getGuaranteedCount() {
+        return count - maxError;
+    }
+}
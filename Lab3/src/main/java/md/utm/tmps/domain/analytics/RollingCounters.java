@@ -0,0 +1,43 @@
+package md.utm.tmps.domain.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Per-bucket counters for every WindowMetric, one flat array per bucket
+public class RollingCounters extends RollingWindow<AtomicLongArray> {
+    private static final int METRICS = WindowMetric.values().length;
+
+    public RollingCounters(TimeWindow window) {
+        super(window);
+    }
+
+    public void add(WindowMetric metric, long timestampMillis, long amount) {
+        AtomicLongArray bucket = bucketFor(timestampMillis);
+        if (bucket != null) {
+            bucket.addAndGet(metric.ordinal(), amount);
+        }
+    }
+
+    public long sum(WindowMetric metric, long nowMillis) {
+        long total = 0;
+        for (int slot = 0; slot < getWindow().getBucketCount(); slot++) {
+            AtomicLongArray bucket = liveBucket(slot, nowMillis);
+            if (bucket != null) {
+                total += bucket.get(metric.ordinal());
+            }
+        }
+        return total;
+    }
+
+    public WindowStats stats(long nowMillis) {
+        return new WindowStats(getWindow(),
+                sum(WindowMetric.ORDERS_CREATED, nowMillis),
+                sum(WindowMetric.ORDERS_CANCELLED, nowMillis),
+                sum(WindowMetric.ORDERS_DELIVERED, nowMillis),
+                sum(WindowMetric.REVENUE_CENTS, nowMillis));
+    }
+
+    @Override
+    protected AtomicLongArray newBucket() {
+        return new AtomicLongArray(METRICS);
+    }
+}
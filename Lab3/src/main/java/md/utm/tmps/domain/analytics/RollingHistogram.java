@@ -0,0 +1,33 @@
+package md.utm.tmps.domain.analytics;
+
+// One LogLinearHistogram per bucket; a window query merges the live buckets
+public class RollingHistogram extends RollingWindow<LogLinearHistogram> {
+
+    public RollingHistogram(TimeWindow window) {
+        super(window);
+    }
+
+    public void record(long timestampMillis, long value) {
+        LogLinearHistogram bucket = bucketFor(timestampMillis);
+        if (bucket != null) {
+            bucket.record(value);
+        }
+    }
+
+    // Merged copy of every bucket inside the window ending now
+    public LogLinearHistogram snapshot(long nowMillis) {
+        LogLinearHistogram merged = new LogLinearHistogram();
+        for (int slot = 0; slot < getWindow().getBucketCount(); slot++) {
+            LogLinearHistogram bucket = liveBucket(slot, nowMillis);
+            if (bucket != null) {
+                merged.add(bucket);
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    protected LogLinearHistogram newBucket() {
+        return new LogLinearHistogram();
+    }
+}
@@ -0,0 +1,57 @@
+package md.utm.tmps.domain.analytics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Ring of time buckets shared by the rolling counters and histograms
+// Each slot holds the bucket (timestamp / bucketMillis) it currently covers together with
+// that bucket's data. A newer bucket claims a slot by installing fresh data instead of
+// clearing the old one, so a writer that resolved the old bucket just before the rollover
+// lands in the retired data (already outside the window) and never in the new bucket.
+// Data is created the first time a bucket is claimed, so idle windows stay small;
+// recording into a live bucket is a single lock-free update and never allocates.
+abstract class RollingWindow<B> {
+    private final TimeWindow window;
+    private final AtomicReferenceArray<Bucket<B>> slots;
+
+    private record Bucket<B>(long id, B data) {
+    }
+
+    protected RollingWindow(TimeWindow window) {
+        this.window = window;
+        this.slots = new AtomicReferenceArray<>(window.getBucketCount());
+    }
+
+    public TimeWindow getWindow() {
+        return window;
+    }
+
+    // Data of the bucket holding the given timestamp, or null when it is older than the whole window
+    protected final B bucketFor(long timestampMillis) {
+        long id = timestampMillis / window.getBucketMillis();
+        int slot = (int) (id % window.getBucketCount());
+        Bucket<B> held = slots.get(slot);
+        if (held != null && held.id() >= id) {
+            return held.id() == id ? held.data() : null;
+        }
+        // Rollover is rare (once per bucket), so it may take the lock
+        synchronized (this) {
+            held = slots.get(slot);
+            if (held == null || held.id() < id) {
+                held = new Bucket<>(id, newBucket());
+                slots.set(slot, held);
+            }
+        }
+        return held.id() == id ? held.data() : null;
+    }
+
+    // Data of the slot if its bucket still falls inside the window ending now, else null
+    protected final B liveBucket(int slot, long nowMillis) {
+        long newest = nowMillis / window.getBucketMillis();
+        Bucket<B> held = slots.get(slot);
+        return held != null && held.id() > newest - window.getBucketCount() && held.id() <= newest
+                ? held.data()
+                : null;
+    }
+
+    protected abstract B newBucket();
+}
@@ -0,0 +1,120 @@
+package md.utm.tmps.domain.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Space-Saving heavy hitters (Metwally et al.) over a fixed number of counters
+// When a new product arrives and every counter is taken, the smallest counter is
+// handed over to it and its old count becomes the new product's error bound.
+// Any product ordered more than total/capacity times is guaranteed to be tracked.
+// Counters sit in an indexed min-heap, so each update is O(log capacity).
+public class SpaceSavingPopularityTracker implements PopularityTracker {
+    private final int capacity;
+    private final String[] products;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> positions;
+    private int size;
+
+    public SpaceSavingPopularityTracker(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.products = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    @Override
+    public synchronized void record(String product, long count) {
+        Integer position = positions.get(product);
+        if (position != null) {
+            counts[position] += count;
+            siftDown(position);
+        } else if (size < capacity) {
+            products[size] = product;
+            counts[size] = count;
+            errors[size] = 0;
+            positions.put(product, size);
+            siftUp(size++);
+        } else {
+            // Evict the minimum: the newcomer may have been seen up to that many times already
+            positions.remove(products[0]);
+            errors[0] = counts[0];
+            counts[0] += count;
+            products[0] = product;
+            positions.put(product, 0);
+            siftDown(0);
+        }
+    }
+
+    @Override
+    public synchronized List<ProductCount> topProducts(int limit) {
+        List<ProductCount> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new ProductCount(products[i], counts[i], errors[i]));
+        }
+        result.sort(Comparator.comparingLong(ProductCount::count).reversed());
+        return result.subList(0, Math.min(limit, result.size()));
+    }
+
+    @Override
+    public long estimatedBytes() {
+        // Three parallel arrays plus the position map node and boxed index per counter
+        return (long) capacity * (Long.BYTES * 2 + 8 + 48 + 16);
+    }
+
+    @Override
+    public String getMode() {
+        return "Space-Saving (" + capacity + " counters)";
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (counts[parent] <= counts[index]) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String product = products[a];
+        long count = counts[a];
+        long error = errors[a];
+        products[a] = products[b];
+        counts[a] = counts[b];
+        errors[a] = errors[b];
+        products[b] = product;
+        counts[b] = count;
+        errors[b] = error;
+        positions.put(products[a], a);
+        positions.put(products[b], b);
+    }
+}
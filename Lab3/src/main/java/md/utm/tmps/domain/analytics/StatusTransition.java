@@ -0,0 +1,11 @@
+package md.utm.tmps.domain.analytics;
+
+import md.utm.tmps.domain.models.Order;
+
+// A pair of statuses whose time-between is tracked, e.g. CONFIRMED -> SHIPPED
+public record StatusTransition(Order.OrderStatus from, Order.OrderStatus to) {
+    @Override
+    public String toString() {
+        return from.getDescription() + " → " + to.getDescription();
+    }
+}
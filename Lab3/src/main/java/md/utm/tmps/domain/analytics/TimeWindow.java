@@ -0,0 +1,23 @@
+package md.utm.tmps.domain.analytics;
+
+// Rolling windows kept by the analytics ring buffers
+// A window is bucketCount buckets of bucketMillis each; the oldest bucket is recycled as time moves on
+public enum TimeWindow {
+    MINUTE("Last minute", 5_000L, 12),
+    HOUR("Last hour", 60_000L, 60),
+    DAY("Last day", 3_600_000L, 24);
+
+    private final String label;
+    private final long bucketMillis;
+    private final int bucketCount;
+
+    TimeWindow(String label, long bucketMillis, int bucketCount) {
+        this.label = label;
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = bucketCount;
+    }
+
+    public String getLabel() { return label; }
+    public long getBucketMillis() { return bucketMillis; }
+    public int getBucketCount() { return bucketCount; }
+}
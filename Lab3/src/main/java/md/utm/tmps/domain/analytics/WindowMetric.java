@@ -0,0 +1,9 @@
+package md.utm.tmps.domain.analytics;
+
+// Counters tracked per rolling window
+public enum WindowMetric {
+    ORDERS_CREATED,
+    ORDERS_CANCELLED,
+    ORDERS_DELIVERED,
+    REVENUE_CENTS
+}
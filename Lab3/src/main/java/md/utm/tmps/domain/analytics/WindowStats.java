@@ -0,0 +1,12 @@
+package md.utm.tmps.domain.analytics;
+
+// Totals of one rolling window at the time it was queried
+public record WindowStats(TimeWindow window,
+                          long ordersCreated,
+                          long ordersCancelled,
+                          long ordersDelivered,
+                          long revenueCents) {
+    public double getRevenue() {
+        return revenueCents / 100.0;
+    }
+}
@@ -0,0 +1,142 @@
+package md.utm.tmps.domain.analytics;
+
+import md.utm.tmps.domain.models.Order;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Rolling per-minute/hour/day statistics for the analytics dashboard
+// Counters and histograms are ring buffers of time buckets; a bucket's data is created when
+// it first sees traffic (at most once per bucket interval), so idle windows cost little and
+// recording a status change otherwise touches fixed memory only. The one per-order allocation
+// is the status timestamp row used for time-between-status, dropped once the order reaches a final status
+// or once it has gone untouched for longer than the longest window (abandoned orders).
+public class WindowedAnalytics {
+    public static final List<StatusTransition> DEFAULT_TRANSITIONS = List.of(
+            new StatusTransition(Order.OrderStatus.CREATED, Order.OrderStatus.CONFIRMED),
+            new StatusTransition(Order.OrderStatus.CONFIRMED, Order.OrderStatus.SHIPPED),
+            new StatusTransition(Order.OrderStatus.SHIPPED, Order.OrderStatus.DELIVERED));
+
+    private static final TimeWindow[] WINDOWS = TimeWindow.values();
+    private static final int STATUSES = Order.OrderStatus.values().length;
+    // Last slot of a status timestamp row holds when the row was last touched
+    private static final int LAST_TOUCHED = STATUSES;
+    private static final TimeWindow LONGEST = WINDOWS[WINDOWS.length - 1];
+    private static final long ROW_RETENTION_MILLIS = LONGEST.getBucketMillis() * LONGEST.getBucketCount();
+
+    private final RollingCounters[] counters;
+    private final RollingHistogram[] orderValues;
+    private final List<StatusTransition> transitions;
+    private final RollingHistogram[][] transitionTimes;
+    private final Map<String, long[]> statusTimes;
+    private final AtomicLong nextSweepMillis = new AtomicLong();
+
+    public WindowedAnalytics() {
+        this(DEFAULT_TRANSITIONS);
+    }
+
+    public WindowedAnalytics(List<StatusTransition> trackedTransitions) {
+        this.counters = new RollingCounters[WINDOWS.length];
+        this.orderValues = new RollingHistogram[WINDOWS.length];
+        this.transitions = List.copyOf(trackedTransitions);
+        this.transitionTimes = new RollingHistogram[transitions.size()][WINDOWS.length];
+        this.statusTimes = new ConcurrentHashMap<>();
+        for (TimeWindow window : WINDOWS) {
+            counters[window.ordinal()] = new RollingCounters(window);
+            orderValues[window.ordinal()] = new RollingHistogram(window);
+            for (int t = 0; t < transitions.size(); t++) {
+                transitionTimes[t][window.ordinal()] = new RollingHistogram(window);
+            }
+        }
+    }
+
+    // Records one status change of an order; valueCents is the order's final price.
+    // Order values are sampled at confirmation: an order may still be priced after it is created
+    public void record(String orderId, Order.OrderStatus status, long timestampMillis, long valueCents) {
+        switch (status) {
+            case CREATED -> add(WindowMetric.ORDERS_CREATED, timestampMillis, 1);
+            case CONFIRMED -> {
+                for (RollingHistogram histogram : orderValues) {
+                    histogram.record(timestampMillis, valueCents);
+                }
+            }
+            case CANCELLED -> add(WindowMetric.ORDERS_CANCELLED, timestampMillis, 1);
+            case DELIVERED -> {
+                add(WindowMetric.ORDERS_DELIVERED, timestampMillis, 1);
+                add(WindowMetric.REVENUE_CENTS, timestampMillis, valueCents);
+            }
+            default -> {
+                // Intermediate statuses only feed the transition times
+            }
+        }
+        recordTransitionTimes(orderId, status, timestampMillis);
+    }
+
+    public WindowStats getStats(TimeWindow window) {
+        return counters[window.ordinal()].stats(System.currentTimeMillis());
+    }
+
+    // Value distribution (in cents) of the orders confirmed in the window
+    public LogLinearHistogram getOrderValues(TimeWindow window) {
+        return orderValues[window.ordinal()].snapshot(System.currentTimeMillis());
+    }
+
+    // Time-between-status distribution (in millis) over the window; null if not tracked
+    public LogLinearHistogram getTransitionTimes(StatusTransition transition, TimeWindow window) {
+        int t = transitions.indexOf(transition);
+        return t < 0 ? null : transitionTimes[t][window.ordinal()].snapshot(System.currentTimeMillis());
+    }
+
+    public List<StatusTransition> getTrackedTransitions() {
+        return transitions;
+    }
+
+    // Orders whose time-between-status is still being tracked
+    public int getTrackedOrderCount() {
+        return statusTimes.size();
+    }
+
+    private void add(WindowMetric metric, long timestampMillis, long amount) {
+        for (RollingCounters windowCounters : counters) {
+            windowCounters.add(metric, timestampMillis, amount);
+        }
+    }
+
+    // Events of one order arrive in order, so its row is never written concurrently
+    private void recordTransitionTimes(String orderId, Order.OrderStatus status, long timestampMillis) {
+        if (transitions.isEmpty()) {
+            return;
+        }
+        evictStaleRows(timestampMillis);
+        long[] times = status.isTerminal()
+                ? statusTimes.remove(orderId)
+                : statusTimes.computeIfAbsent(orderId, id -> new long[STATUSES + 1]);
+        if (times == null) {
+            return;
+        }
+        times[status.ordinal()] = timestampMillis;
+        times[LAST_TOUCHED] = timestampMillis;
+        for (int t = 0; t < transitions.size(); t++) {
+            StatusTransition transition = transitions.get(t);
+            long started = times[transition.from().ordinal()];
+            if (transition.to() == status && started != 0) {
+                for (RollingHistogram histogram : transitionTimes[t]) {
+                    histogram.record(timestampMillis, timestampMillis - started);
+                }
+            }
+        }
+    }
+
+    // Once per bucket of the longest window, drops rows of orders that stopped moving a window ago;
+    // a transition that finally arrives after that is simply not measured
+    private void evictStaleRows(long timestampMillis) {
+        long due = nextSweepMillis.get();
+        if (timestampMillis < due
+                || !nextSweepMillis.compareAndSet(due, timestampMillis + LONGEST.getBucketMillis())) {
+            return;
+        }
+        long cutoff = timestampMillis - ROW_RETENTION_MILLIS;
+        statusTimes.values().removeIf(times -> times[LAST_TOUCHED] < cutoff);
+    }
+}
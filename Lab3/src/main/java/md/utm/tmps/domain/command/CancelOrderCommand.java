@@ -9,29 +9,43 @@ public class CancelOrderCommand implements OrderCommand {
     private final OrderManager orderManager;
     private final String orderId;
     private Order.OrderStatus previousStatus;
+    private boolean applied;
 
     public CancelOrderCommand(OrderManager orderManager, String orderId) {
         this.orderManager = orderManager;
         this.orderId = orderId;
     }
 
+    // An applied cancellation read back from spilled undo history
+    static CancelOrderCommand restore(OrderManager orderManager, String orderId,
+                                      Order.OrderStatus previousStatus) {
+        CancelOrderCommand command = new CancelOrderCommand(orderManager, orderId);
+        command.previousStatus = previousStatus;
+        command.applied = true;
+        return command;
+    }
+
+    Order.OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
     @Override
     public void execute() {
         System.out.println("\n   ▶ Executing: Cancel Order Command");
 
+        applied = false;
         Order order = orderManager.getOrder(orderId);
         if (order != null) {
             previousStatus = order.getStatus();
 
-            if (previousStatus == Order.OrderStatus.SHIPPED ||
-                    previousStatus == Order.OrderStatus.DELIVERED) {
+            // The order's lifecycle decides - cancellation is only allowed before shipping
+            applied = orderManager.cancelOrder(orderId);
+            if (applied) {
+                System.out.printf("   ✅ Order %s cancelled successfully!\n", orderId);
+            } else {
                 System.out.printf("   ❌ Cannot cancel order %s - already %s\n",
-                        orderId, previousStatus.getDescription());
-                return;
+                        orderId, order.getStatus().getDescription());
             }
-
-            orderManager.cancelOrder(orderId);
-            System.out.printf("   ✅ Order %s cancelled successfully!\n", orderId);
         } else {
             System.out.printf("   ❌ Order %s not found!\n", orderId);
         }
@@ -41,14 +55,23 @@ public class CancelOrderCommand implements OrderCommand {
     public void undo() {
         System.out.println("\n   ◀ Undoing: Cancel Order Command");
 
-        Order order = orderManager.getOrder(orderId);
-        if (order != null && previousStatus != null) {
-            order.setStatus(previousStatus);
+        if (!applied) {
+            System.out.println("   ⚠️  Nothing to undo - the cancellation was not applied");
+            return;
+        }
+        if (orderManager.revertStatus(orderId, Order.OrderStatus.CANCELLED, previousStatus)) {
             System.out.printf("   ↩️  Order %s restored to: %s\n",
                     orderId, previousStatus.getDescription());
+        } else {
+            System.out.printf("   ⚠️  Order %s changed since it was cancelled - not restored\n", orderId);
         }
     }
 
+    @Override
+    public String getOrderId() {
+        return orderId;
+    }
+
     @Override
     public String getCommandName() {
         return "Cancel Order";
@@ -58,4 +81,9 @@ public class CancelOrderCommand implements OrderCommand {
     public boolean isReversible() {
         return true;
     }
+
+    @Override
+    public boolean wasApplied() {
+        return applied;
+    }
 }
\ No newline at end of file
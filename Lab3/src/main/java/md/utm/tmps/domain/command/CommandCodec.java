@@ -0,0 +1,225 @@
+package md.utm.tmps.domain.command;
+
+import md.utm.tmps.domain.models.Computer;
+import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.observer.OrderManager;
+import md.utm.tmps.domain.persistence.BinaryCodec;
+import md.utm.tmps.domain.strategy.FixedPriceStrategy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Compact binary forms of commands
+// Undo form - just what undo() of an applied command needs: [type][order id][status ordinals],
+// a macro is [type][name][count] followed by its steps. The OrderManager, Computer and
+// PricingContext references are not stored, they are re-bound (or looked up) when read back.
+// Replay form - what execute() needs to redo the command exactly: a placement carries the
+// order id, creation time, customer, computer and the pricing outcome.
+final class CommandCodec {
+    private static final byte PLACE_ORDER = 1;
+    private static final byte UPDATE_STATUS = 2;
+    private static final byte CANCEL_ORDER = 3;
+    private static final byte MACRO = 4;
+
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    // Rough heap retained by a live command: the command object and its id string,
+    // plus the Order and Computer a placed order keeps reachable
+    private static final long COMMAND_BYTES = 96;
+    private static final long PLACED_ORDER_BYTES = 640;
+
+    private CommandCodec() {
+    }
+
+    static boolean canEncode(OrderCommand command) {
+        if (command instanceof MacroOrderCommand macro) {
+            return macro.getCommands().stream().allMatch(CommandCodec::canEncode);
+        }
+        return command instanceof PlaceOrderCommand
+                || command instanceof UpdateOrderStatusCommand
+                || command instanceof CancelOrderCommand;
+    }
+
+    static long estimatedBytes(OrderCommand command) {
+        if (command instanceof MacroOrderCommand macro) {
+            return COMMAND_BYTES + macro.getCommands().stream().mapToLong(CommandCodec::estimatedBytes).sum();
+        }
+        return command instanceof PlaceOrderCommand ? COMMAND_BYTES + PLACED_ORDER_BYTES : COMMAND_BYTES;
+    }
+
+    static byte[] encode(OrderCommand command) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+            DataOutputStream out = new DataOutputStream(bytes);
+            if (command instanceof PlaceOrderCommand place) {
+                out.writeByte(PLACE_ORDER);
+                BinaryCodec.writeString(out, place.getCreatedOrder().getOrderId());
+            } else if (command instanceof UpdateOrderStatusCommand update) {
+                out.writeByte(UPDATE_STATUS);
+                BinaryCodec.writeString(out, update.getOrderId());
+                out.writeByte(update.getNewStatus().ordinal());
+                out.writeByte(update.getPreviousStatus().ordinal());
+            } else if (command instanceof CancelOrderCommand cancel) {
+                out.writeByte(CANCEL_ORDER);
+                BinaryCodec.writeString(out, cancel.getOrderId());
+                out.writeByte(cancel.getPreviousStatus().ordinal());
+            } else if (command instanceof MacroOrderCommand macro) {
+                out.writeByte(MACRO);
+                BinaryCodec.writeString(out, macro.getCommandName());
+                out.writeInt(macro.getCommands().size());
+                for (OrderCommand step : macro.getCommands()) {
+                    out.write(encode(step));
+                }
+            } else {
+                throw new IllegalArgumentException("Command cannot be encoded: " + command.getCommandName());
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static boolean canReplay(OrderCommand command) {
+        if (command instanceof PlaceOrderCommand place) {
+            return place.getCreatedOrder() != null;
+        }
+        if (command instanceof MacroOrderCommand macro) {
+            return macro.getCommands().stream().allMatch(CommandCodec::canReplay);
+        }
+        return command instanceof UpdateOrderStatusCommand || command instanceof CancelOrderCommand;
+    }
+
+    static byte[] encodeForReplay(OrderCommand command) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            writeForReplay(new DataOutputStream(bytes), command);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeForReplay(DataOutputStream out, OrderCommand command) throws IOException {
+        if (command instanceof PlaceOrderCommand place) {
+            Order order = place.getCreatedOrder();
+            out.writeByte(PLACE_ORDER);
+            out.writeLong(order.getId());
+            out.writeLong(BinaryCodec.toEpochMillis(order.getCreatedAt()));
+            BinaryCodec.writeString(out, order.getCustomerName());
+            BinaryCodec.writeString(out, order.getCustomerEmail());
+            BinaryCodec.writeComputer(out, order.getComputer());
+            out.writeDouble(order.getFinalPrice());
+            BinaryCodec.writeString(out, order.getPricingStrategy());
+            BinaryCodec.writeString(out, order.getDiscountApplied());
+            out.writeBoolean(place.isPricedBeforeStored());
+        } else if (command instanceof UpdateOrderStatusCommand update) {
+            out.writeByte(UPDATE_STATUS);
+            BinaryCodec.writeString(out, update.getOrderId());
+            out.writeByte(update.getNewStatus().ordinal());
+        } else if (command instanceof CancelOrderCommand cancel) {
+            out.writeByte(CANCEL_ORDER);
+            BinaryCodec.writeString(out, cancel.getOrderId());
+        } else if (command instanceof MacroOrderCommand macro) {
+            out.writeByte(MACRO);
+            BinaryCodec.writeString(out, macro.getCommandName());
+            out.writeInt(macro.getCommands().size());
+            for (OrderCommand step : macro.getCommands()) {
+                writeForReplay(out, step);
+            }
+        } else {
+            throw new IllegalArgumentException("Command cannot be replayed: " + command.getCommandName());
+        }
+    }
+
+    // A fresh, not yet executed command bound to the manager being rebuilt
+    static OrderCommand decodeForReplay(byte[] record, OrderManager orderManager) {
+        try {
+            return readForReplay(new DataInputStream(new ByteArrayInputStream(record)), orderManager);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode journaled command", e);
+        }
+    }
+
+    private static OrderCommand readForReplay(DataInputStream in, OrderManager orderManager) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case PLACE_ORDER -> {
+                long orderId = in.readLong();
+                long createdAt = in.readLong();
+                String customerName = BinaryCodec.readString(in);
+                String customerEmail = BinaryCodec.readString(in);
+                Computer computer = BinaryCodec.readComputer(in);
+                double finalPrice = in.readDouble();
+                String strategy = BinaryCodec.readString(in);
+                String discount = BinaryCodec.readString(in);
+                boolean pricedBeforeStored = in.readBoolean();
+                return PlaceOrderCommand.replay(orderManager, orderId, BinaryCodec.fromEpochMillis(createdAt),
+                        customerName, customerEmail, computer, new FixedPriceStrategy(finalPrice, strategy, discount),
+                        pricedBeforeStored);
+            }
+            case UPDATE_STATUS -> {
+                String orderId = BinaryCodec.readString(in);
+                return new UpdateOrderStatusCommand(orderManager, orderId, STATUSES[in.readByte()]);
+            }
+            case CANCEL_ORDER -> {
+                return new CancelOrderCommand(orderManager, BinaryCodec.readString(in));
+            }
+            case MACRO -> {
+                String name = BinaryCodec.readString(in);
+                int count = in.readInt();
+                List<OrderCommand> steps = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    steps.add(readForReplay(in, orderManager));
+                }
+                return new MacroOrderCommand(orderManager, steps, name);
+            }
+            default -> throw new IOException("Unknown journaled command type: " + type);
+        }
+    }
+
+    // Null when the command no longer has anything to undo (its order is gone)
+    static OrderCommand decode(byte[] record, OrderManager orderManager) {
+        try {
+            return read(new DataInputStream(new ByteArrayInputStream(record)), orderManager);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode spilled command", e);
+        }
+    }
+
+    private static OrderCommand read(DataInputStream in, OrderManager orderManager) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case PLACE_ORDER -> {
+                Order order = orderManager.getOrder(BinaryCodec.readString(in));
+                return order == null ? null : PlaceOrderCommand.restore(orderManager, order);
+            }
+            case UPDATE_STATUS -> {
+                String orderId = BinaryCodec.readString(in);
+                Order.OrderStatus newStatus = STATUSES[in.readByte()];
+                return UpdateOrderStatusCommand.restore(orderManager, orderId, newStatus, STATUSES[in.readByte()]);
+            }
+            case CANCEL_ORDER -> {
+                String orderId = BinaryCodec.readString(in);
+                return CancelOrderCommand.restore(orderManager, orderId, STATUSES[in.readByte()]);
+            }
+            case MACRO -> {
+                String name = BinaryCodec.readString(in);
+                int count = in.readInt();
+                List<OrderCommand> steps = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    OrderCommand step = read(in, orderManager);
+                    if (step != null) {
+                        steps.add(step);
+                    }
+                }
+                return steps.isEmpty() ? null : MacroOrderCommand.restore(orderManager, steps, name);
+            }
+            default -> throw new IOException("Unknown command record type: " + type);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package md.utm.tmps.domain.command;
+
+import md.utm.tmps.domain.observer.OrderManager;
+import md.utm.tmps.domain.persistence.DurabilityMode;
+import md.utm.tmps.domain.persistence.SegmentedLog;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+// Durable journal of every executed and undone command, in the order they ran
+// Records are [kind][time][command]: executions carry the replay form (enough to redo the
+// command exactly, including order ids and pricing outcomes), undos carry the undo form. The
+// time is when the command ran, so replayed events are stamped with it. A macro that rolled
+// back is journaled as what really happened - the steps that ran, then their undos - since it
+// still leaves cancelled orders behind and a step it never reached cannot be replayed.
+public class CommandJournal implements Closeable {
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10;
+
+    private static final byte EXECUTED = 1;
+    private static final byte UNDONE = 2;
+
+    private final SegmentedLog log;
+
+    public CommandJournal(SegmentedLog log) {
+        this.log = log;
+    }
+
+    public static CommandJournal open(Path directory, DurabilityMode durabilityMode) throws IOException {
+        return new CommandJournal(new SegmentedLog(directory, "commands", DEFAULT_SEGMENT_SIZE,
+                durabilityMode, DEFAULT_FLUSH_INTERVAL_MILLIS));
+    }
+
+    // Commands the codec doesn't know (custom OrderCommand implementations) are skipped
+    public boolean recordExecuted(OrderCommand command) {
+        if (command instanceof MacroOrderCommand macro && !macro.wasApplied()) {
+            return recordRolledBack(macro);
+        }
+        if (!CommandCodec.canReplay(command)) {
+            return false;
+        }
+        log.append(record(EXECUTED, System.currentTimeMillis(), CommandCodec.encodeForReplay(command)));
+        return true;
+    }
+
+    // The rejected step changed nothing, so only the steps before it and their undos are kept
+    private boolean recordRolledBack(MacroOrderCommand macro) {
+        List<OrderCommand> steps = macro.getRolledBackSteps();
+        if (steps.isEmpty() || !steps.stream().allMatch(CommandCodec::canReplay)) {
+            return false;
+        }
+        long timestampMillis = System.currentTimeMillis();
+        for (OrderCommand step : steps) {
+            log.append(record(EXECUTED, timestampMillis, CommandCodec.encodeForReplay(step)));
+        }
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            OrderCommand step = steps.get(i);
+            if (step.isReversible() && CommandCodec.canEncode(step)) {
+                log.append(record(UNDONE, timestampMillis, CommandCodec.encode(step)));
+            }
+        }
+        return true;
+    }
+
+    public boolean recordUndone(OrderCommand command) {
+        if (!CommandCodec.canEncode(command)) {
+            return false;
+        }
+        log.append(record(UNDONE, System.currentTimeMillis(), CommandCodec.encode(command)));
+        return true;
+    }
+
+    // Returns once every record appended so far is durable (group commit in PER_BATCH mode,
+    // a no-op in the other modes)
+    public void sync() {
+        log.sync();
+    }
+
+    // Hands every journaled command to the visitor, bound to the given manager
+    public long read(OrderManager orderManager, Visitor visitor) {
+        try {
+            return log.read(0, (lsn, payload) -> {
+                byte kind = payload.get();
+                long timestampMillis = payload.getLong();
+                byte[] body = new byte[payload.remaining()];
+                payload.get(body);
+                if (kind == EXECUTED) {
+                    visitor.executed(CommandCodec.decodeForReplay(body, orderManager), timestampMillis);
+                } else if (kind == UNDONE) {
+                    OrderCommand command = CommandCodec.decode(body, orderManager);
+                    if (command != null) {
+                        visitor.undone(command, timestampMillis);
+                    }
+                } else {
+                    throw new IOException("Unknown command journal record kind: " + kind);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read command journal", e);
+        }
+    }
+
+    // timestampMillis: when the command originally ran
+    public interface Visitor {
+        void executed(OrderCommand command, long timestampMillis);
+
+        void undone(OrderCommand command, long timestampMillis);
+    }
+
+    public SegmentedLog getLog() {
+        return log;
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    private static byte[] record(byte kind, long timestampMillis, byte[] command) {
+        return ByteBuffer.allocate(1 + Long.BYTES + command.length)
+                .put(kind)
+                .putLong(timestampMillis)
+                .put(command)
+                .array();
+    }
+}
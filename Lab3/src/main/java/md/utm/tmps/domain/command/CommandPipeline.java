@@ -0,0 +1,78 @@
+package md.utm.tmps.domain.command;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Executors behind the staged command pipeline, one per stage so each can be sized on its own:
+// validation and pricing are short CPU work, persistence and notification mostly wait on
+// I/O (log syncs, senders). Where the JDK has virtual threads the waiting stages get a
+// thread per task; otherwise they fall back to bounded platform-thread pools.
+public class CommandPipeline {
+    private final ExecutorService validation;
+    private final ExecutorService pricing;
+    private final ExecutorService persistence;
+    private final ExecutorService notification;
+
+    public CommandPipeline(ExecutorService validation, ExecutorService pricing,
+                           ExecutorService persistence, ExecutorService notification) {
+        this.validation = validation;
+        this.pricing = pricing;
+        this.persistence = persistence;
+        this.notification = notification;
+    }
+
+    public static CommandPipeline defaults() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        return new CommandPipeline(
+                fixedPool("order-validate", 1),
+                fixedPool("order-price", cpus),
+                waitingPool("order-persist", 4 * cpus),
+                waitingPool("order-notify", 2 * cpus));
+    }
+
+    // Virtual threads if this JDK has them (looked up reflectively - the code targets Java 17)
+    public static ExecutorService waitingPool(String name, int fallbackThreads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return fixedPool(name, fallbackThreads);
+        }
+    }
+
+    public static ExecutorService fixedPool(String name, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ExecutorService validation() {
+        return validation;
+    }
+
+    public ExecutorService pricing() {
+        return pricing;
+    }
+
+    public ExecutorService persistence() {
+        return persistence;
+    }
+
+    public ExecutorService notification() {
+        return notification;
+    }
+
+    // Stages shut down in pipeline order, so work already past a stage can still finish
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ExecutorService stage : List.of(validation, pricing, persistence, notification)) {
+            stage.shutdown();
+            stage.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package md.utm.tmps.domain.command;
+
+import md.utm.tmps.domain.observer.OrderManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Command Pattern
+// Composite Command - runs several commands as one all-or-nothing unit
+// If a step is rejected or throws, the steps already executed are undone in reverse order.
+// Observer notifications are held back while the steps run and flushed once as a batch
+// (a rolled-back step's event never goes out), and the whole macro is a single undo history entry.
+public class MacroOrderCommand implements OrderCommand {
+    private final OrderManager orderManager;
+    private final List<OrderCommand> commands;
+    private final String name;
+    private boolean applied;
+    // Steps that ran and were undone when the last execute() rolled back
+    private List<OrderCommand> rolledBack = List.of();
+
+    public MacroOrderCommand(OrderManager orderManager, List<OrderCommand> commands) {
+        this(orderManager, commands, String.format("Macro (%d commands)", commands.size()));
+    }
+
+    public MacroOrderCommand(OrderManager orderManager, List<OrderCommand> commands, String name) {
+        this.orderManager = orderManager;
+        this.commands = List.copyOf(commands);
+        this.name = name;
+    }
+
+    // An applied macro read back from spilled undo history
+    static MacroOrderCommand restore(OrderManager orderManager, List<OrderCommand> commands, String name) {
+        MacroOrderCommand command = new MacroOrderCommand(orderManager, commands, name);
+        command.applied = true;
+        return command;
+    }
+
+    @Override
+    public void execute() {
+        System.out.printf("\n   ▶ Executing: %s\n", name);
+        rolledBack = List.of();
+        applied = orderManager.deferNotifications(this::executeAll);
+        if (applied) {
+            System.out.printf("   ✅ %s completed: %d commands applied\n", name, commands.size());
+        }
+    }
+
+    private boolean executeAll() {
+        List<OrderCommand> executed = new ArrayList<>(commands.size());
+        for (OrderCommand command : commands) {
+            String failure = null;
+            try {
+                command.execute();
+                if (!command.wasApplied()) {
+                    failure = "rejected";
+                }
+            } catch (RuntimeException e) {
+                failure = e.getMessage();
+            }
+            if (failure != null) {
+                System.out.printf("   ❌ %s failed at step %d (%s: %s) - rolling back %d executed commands\n",
+                        name, executed.size() + 1, command.getCommandName(), failure, executed.size());
+                undoInReverse(executed);
+                rolledBack = List.copyOf(executed);
+                return false;
+            }
+            executed.add(command);
+        }
+        return true;
+    }
+
+    @Override
+    public void undo() {
+        if (!applied) {
+            return;
+        }
+        System.out.printf("\n   ◀ Undoing: %s\n", name);
+        orderManager.deferNotifications(() -> {
+            undoInReverse(commands);
+            return null;
+        });
+        applied = false;
+    }
+
+    private static void undoInReverse(List<OrderCommand> executed) {
+        for (int i = executed.size() - 1; i >= 0; i--) {
+            OrderCommand command = executed.get(i);
+            if (command.isReversible()) {
+                command.undo();
+            }
+        }
+    }
+
+    @Override
+    public String getCommandName() {
+        return name;
+    }
+
+    @Override
+    public boolean wasApplied() {
+        return applied;
+    }
+
+    // Reversible when every step is; a delivered order can't be rolled back
+    @Override
+    public boolean isReversible() {
+        return commands.stream().allMatch(OrderCommand::isReversible);
+    }
+
+    // The single order every step targets, null when the steps span several
+    @Override
+    public String getOrderId() {
+        List<String> orderIds = getOrderIds();
+        return orderIds.size() == 1 ? orderIds.get(0) : null;
+    }
+
+    // Serialized with every order any step touches, in a fixed (sorted) order
+    @Override
+    public List<String> getOrderIds() {
+        Set<String> orderIds = new TreeSet<>();
+        for (OrderCommand command : commands) {
+            orderIds.addAll(command.getOrderIds());
+        }
+        return List.copyOf(orderIds);
+    }
+
+    public List<OrderCommand> getCommands() {
+        return commands;
+    }
+
+    // What a rejected execute() actually did: these steps ran, then were undone in reverse
+    List<OrderCommand> getRolledBackSteps() {
+        return rolledBack;
+    }
+}
@@ -1,5 +1,7 @@
 package md.utm.tmps.domain.command;
 
+import java.util.List;
+
 // Command Pattern
 // Command interface - defines execute and undo operations
 public interface OrderCommand {
@@ -7,4 +9,22 @@ public interface OrderCommand {
     void undo();
     String getCommandName();
     boolean isReversible();
+
+    // False when the last execute() was rejected (unknown order, illegal transition)
+    default boolean wasApplied() {
+        return true;
+    }
+
+    // Order the command targets; commands for the same order never run concurrently.
+    // Null for commands that do not touch an existing order (e.g. placing a new one)
+    default String getOrderId() {
+        return null;
+    }
+
+    // Every existing order the command touches; a command spanning several orders runs only
+    // while none of them has another command in progress
+    default List<String> getOrderIds() {
+        String orderId = getOrderId();
+        return orderId == null ? List.of() : List.of(orderId);
+    }
 }
\ No newline at end of file
@@ -1,48 +1,418 @@
 package md.utm.tmps.domain.command;
 
+import md.utm.tmps.domain.observer.OrderEvent;
+import md.utm.tmps.domain.observer.OrderManager;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 // Command Pattern
 // Invoker class - executes commands and manages history for undo
+// Safe to share across threads: every order has a lightweight mailbox, so commands for the
+// same order run one at a time in submission order, while different orders run in parallel
+// on the worker pool. Commands that don't target an existing order run on any worker; a
+// command spanning several orders (a macro) waits until it holds all of their mailboxes.
+// Memory stays bounded: undo history is an UndoHistory and the execution log keeps its newest entries.
 public class OrderCommandInvoker {
-    private final Stack<OrderCommand> commandHistory;
-    private final List<String> executionLog;
+    public static final int DEFAULT_MAX_LOG_ENTRIES = 1000;
+
+    private static final int MAILBOX_BATCH = 64;
+
+    private final UndoHistory commandHistory;
+    private final Queue<String> executionLog;
+    private final int maxLogEntries;
+    private final AtomicInteger logSize;
+    private final AtomicLong loggedCount;
+    private final Map<String, Mailbox> mailboxes;
+    private final ExecutorService workers;
+    private final Object jointEnqueueLock = new Object();
+    private volatile CommandJournal journal;
+    private CommandPipeline pipeline;
 
     public OrderCommandInvoker() {
-        this.commandHistory = new Stack<>();
-        this.executionLog = new ArrayList<>();
+        this(defaultWorkers());
+    }
+
+    public OrderCommandInvoker(ExecutorService workers) {
+        this(workers, UndoHistory.inMemory(UndoHistory.DEFAULT_MAX_COMMANDS, UndoHistory.DEFAULT_MAX_BYTES),
+                DEFAULT_MAX_LOG_ENTRIES);
+    }
+
+    public OrderCommandInvoker(UndoHistory commandHistory, int maxLogEntries) {
+        this(defaultWorkers(), commandHistory, maxLogEntries);
+    }
+
+    public OrderCommandInvoker(ExecutorService workers, UndoHistory commandHistory, int maxLogEntries) {
+        this.commandHistory = commandHistory;
+        this.executionLog = new ConcurrentLinkedQueue<>();
+        this.maxLogEntries = maxLogEntries;
+        this.logSize = new AtomicInteger();
+        this.loggedCount = new AtomicLong();
+        this.mailboxes = new ConcurrentHashMap<>();
+        this.workers = workers;
+    }
+
+    private static ExecutorService defaultWorkers() {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "order-command-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // A command spanning several orders: a gate queued in each of their mailboxes claims it,
+    // and whoever claims the last one runs the command and releases them all
+    private static final class JointTask {
+        private final Runnable task;
+        private final AtomicInteger missing;
+        private final Queue<Mailbox> held = new ConcurrentLinkedQueue<>();
+
+        private JointTask(Runnable task, int mailboxCount) {
+            this.task = task;
+            this.missing = new AtomicInteger(mailboxCount);
+        }
+
+        private void claim(Mailbox mailbox) {
+            mailbox.state.set(Mailbox.HELD);
+            held.add(mailbox);
+            if (missing.decrementAndGet() > 0) {
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                held.forEach(Mailbox::release);
+            }
+        }
+    }
+
+    // Pending commands of one order; exists only while the order has work queued.
+    // Enqueueing and retiring both happen inside mailboxes.compute(), so an order never
+    // has two mailboxes draining at once
+    private final class Mailbox implements Runnable {
+        private static final int RUNNING = 0;
+        private static final int HELD = 1;
+        private static final int PARKED = 2;
+
+        private final String orderId;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        // HELD once a multi-order command has claimed this mailbox; the drain loop then
+        // parks (returns, keeping its scheduled slot) until release() hands it back
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        private boolean scheduled;
+
+        private Mailbox(String orderId) {
+            this.orderId = orderId;
+        }
+
+        @Override
+        public void run() {
+            boolean finished = false;
+            try {
+                do {
+                    // Bounded batch, so a busy order can't starve the others on the same worker
+                    for (int i = 0; i < MAILBOX_BATCH; i++) {
+                        Runnable task = tasks.poll();
+                        if (task == null) {
+                            break;
+                        }
+                        task.run();
+                        if (state.get() == HELD && state.compareAndSet(HELD, PARKED)) {
+                            finished = true;
+                            return;
+                        }
+                    }
+                } while (!retireOrRequeue());
+                finished = true;
+            } finally {
+                // An Error escaped a task: hand the remaining commands to another worker (or
+                // retire the mailbox) so the order is not left scheduled with nobody draining it
+                if (!finished) {
+                    retireOrRequeue();
+                }
+            }
+        }
+
+        // Ends a hold: a drain loop that has not parked yet just carries on, a parked one is rescheduled
+        private void release() {
+            if (state.compareAndSet(HELD, RUNNING)) {
+                return;
+            }
+            state.set(RUNNING);
+            try {
+                workers.execute(this);
+            } catch (RejectedExecutionException e) {
+                run();
+            }
+        }
+
+        // False when the pool is shutting down and the remaining commands must drain here
+        private boolean retireOrRequeue() {
+            boolean[] handedOff = {true};
+            mailboxes.compute(orderId, (key, mailbox) -> {
+                if (tasks.isEmpty()) {
+                    scheduled = false;
+                    return null;
+                }
+                try {
+                    workers.execute(this);
+                } catch (RejectedExecutionException e) {
+                    handedOff[0] = false;
+                }
+                return mailbox;
+            });
+            return handedOff[0];
+        }
     }
 
+    // Blocks until the command has run; same ordering guarantees as executeAsync()
     public void executeCommand(OrderCommand command) {
+        await(executeAsync(command));
+    }
+
+    // Runs the commands as one MacroOrderCommand: all applied or all rolled back,
+    // one notification flush at the end and a single undo history entry
+    public boolean executeBatch(OrderManager orderManager, List<OrderCommand> commands) {
+        MacroOrderCommand batch = new MacroOrderCommand(orderManager, commands,
+                String.format("Batch (%d commands)", commands.size()));
+        return await(executeAsync(batch));
+    }
+
+    // Staged commands run through the pipeline: validate -> price -> persist -> notify, each
+    // stage on its own executor. The future completes once observers have been notified (or
+    // the command was rejected), so a command chained on it is never announced first. The
+    // command is journaled and enters undo history only after notifying, so an undo can never
+    // overtake its announcement. If notifying fails the future completes with that failure -
+    // the command stays applied and is still recorded. Other commands behave as executeAsync()
+    public CompletableFuture<Boolean> submit(OrderCommand command) {
+        if (!(command instanceof StagedOrderCommand staged)) {
+            return executeAsync(command);
+        }
+        CommandPipeline stages = pipeline();
+        return CompletableFuture
+                .supplyAsync(staged::validate, stages.validation())
+                .thenApplyAsync(valid -> {
+                    if (valid) {
+                        staged.price();
+                    }
+                    return valid;
+                }, stages.pricing())
+                .thenApplyAsync(valid -> valid ? staged.persist() : null, stages.persistence())
+                .thenCompose(events -> {
+                    if (events == null) {
+                        log(String.format("Rejected: %s", command.getCommandName()));
+                        return CompletableFuture.completedFuture(false);
+                    }
+                    return CompletableFuture
+                            .runAsync(() -> notifyObservers(staged, command, events), stages.notification())
+                            .handle((ignored, failure) -> {
+                                boolean applied = record(command);
+                                if (failure != null) {
+                                    throw failure instanceof CompletionException wrapped
+                                            ? wrapped : new CompletionException(failure);
+                                }
+                                return applied;
+                            });
+                });
+    }
+
+    private void notifyObservers(StagedOrderCommand staged, OrderCommand command, List<OrderEvent> events) {
+        try {
+            staged.notifyObservers(events);
+        } catch (RuntimeException e) {
+            log(String.format("Notification failed: %s (%s)", command.getCommandName(), e));
+            System.out.printf("   ❌ Notifying observers about '%s' failed: %s\n", command.getCommandName(), e);
+            throw e;
+        }
+    }
+
+    // Completes with wasApplied() once the command has run
+    public CompletableFuture<Boolean> executeAsync(OrderCommand command) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        enqueue(command.getOrderIds(), () -> {
+            try {
+                result.complete(run(command));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } catch (Error e) {
+                // The caller must not wait forever; the worker still sees the Error
+                result.completeExceptionally(e);
+                throw e;
+            }
+        });
+        return result;
+    }
+
+    private boolean run(OrderCommand command) {
         System.out.println("\n   ═══════════════════════════════════════");
         System.out.printf("   🎮 INVOKER: Processing '%s' command\n", command.getCommandName());
         System.out.println("   ═══════════════════════════════════════");
 
         command.execute();
+        return record(command);
+    }
+
+    // Journal, undo history and execution log after a command ran
+    // The journal record is durable before the command's future completes
+    private boolean record(OrderCommand command) {
+        CommandJournal activeJournal = journal;
+        if (activeJournal != null) {
+            activeJournal.recordExecuted(command);
+            activeJournal.sync();
+        }
+
+        // Rejected commands changed nothing, so there is nothing to undo
+        if (!command.wasApplied()) {
+            log(String.format("Rejected: %s", command.getCommandName()));
+            return false;
+        }
 
         if (command.isReversible()) {
             commandHistory.push(command);
         }
 
-        executionLog.add(String.format("Executed: %s", command.getCommandName()));
+        log(String.format("Executed: %s", command.getCommandName()));
+        return true;
+    }
+
+    // Keeps only the newest entries; loggedCount still numbers them from the first one
+    private void log(String entry) {
+        executionLog.add(entry);
+        loggedCount.incrementAndGet();
+        if (logSize.incrementAndGet() > maxLogEntries && executionLog.poll() != null) {
+            logSize.decrementAndGet();
+        }
+    }
+
+    private void enqueue(List<String> orderIds, Runnable task) {
+        if (orderIds.isEmpty()) {
+            workers.execute(task);
+        } else if (orderIds.size() == 1) {
+            enqueue(orderIds.get(0), mailbox -> task);
+        } else {
+            // Gates of one joint command are queued together, so every mailbox sees joint
+            // commands in the same order and two of them can never each hold what the other needs
+            JointTask joint = new JointTask(task, orderIds.size());
+            synchronized (jointEnqueueLock) {
+                for (String orderId : orderIds) {
+                    enqueue(orderId, mailbox -> () -> joint.claim(mailbox));
+                }
+            }
+        }
+    }
+
+    private void enqueue(String orderId, Function<Mailbox, Runnable> task) {
+        mailboxes.compute(orderId, (key, mailbox) -> {
+            Mailbox target = mailbox == null ? new Mailbox(key) : mailbox;
+            target.tasks.add(task.apply(target));
+            if (!target.scheduled) {
+                target.scheduled = true;
+                workers.execute(target);
+            }
+            return target;
+        });
+    }
+
+    // Undo also goes through the order's mailbox, behind commands already queued for it
+    private void undo(OrderCommand command) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        enqueue(command.getOrderIds(), () -> {
+            try {
+                command.undo();
+                CommandJournal activeJournal = journal;
+                if (activeJournal != null) {
+                    activeJournal.recordUndone(command);
+                    activeJournal.sync();
+                }
+                log(String.format("Undone: %s", command.getCommandName()));
+                done.complete(null);
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        });
+        await(done);
+    }
+
+    // Replaces the executors used by submit(); the default pipeline is created on first use
+    public synchronized void setPipeline(CommandPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    private synchronized CommandPipeline pipeline() {
+        if (pipeline == null) {
+            pipeline = CommandPipeline.defaults();
+        }
+        return pipeline;
+    }
+
+    // Every command executed or undone from now on is journaled (null to stop)
+    // Journaling happens on the order's mailbox, so each order's commands keep their order
+    public void setJournal(CommandJournal journal) {
+        this.journal = journal;
+    }
+
+    public CommandJournal getJournal() {
+        return journal;
+    }
+
+    // Rebuilds the manager - and every observer registered on it - by re-running the journal
+    // in order on the calling thread, stamping events with the time each command originally
+    // ran. Customer notifications are muted; undo history, the
+    // execution log and this invoker's own journal are left untouched. Run it before taking
+    // live traffic: it does not go through the order mailboxes
+    public long replay(CommandJournal source, OrderManager orderManager) {
+        long start = System.nanoTime();
+        long[] replayed = {0};
+        orderManager.setReplaying(true);
+        try {
+            source.read(orderManager, new CommandJournal.Visitor() {
+                @Override
+                public void executed(OrderCommand command, long timestampMillis) {
+                    orderManager.setReplayTime(timestampMillis);
+                    command.execute();
+                    replayed[0]++;
+                }
+
+                @Override
+                public void undone(OrderCommand command, long timestampMillis) {
+                    orderManager.setReplayTime(timestampMillis);
+                    command.undo();
+                    replayed[0]++;
+                }
+            });
+        } finally {
+            orderManager.setReplaying(false);
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        System.out.printf("   ⏪ Replayed %d journaled commands in %d ms (%d commands/s)\n",
+                replayed[0], millis, replayed[0] * 1000 / millis);
+        return replayed[0];
     }
 
     public void undoLastCommand() {
-        if (commandHistory.isEmpty()) {
+        OrderCommand lastCommand = commandHistory.poll();
+        if (lastCommand == null) {
             System.out.println("\n   ⚠️  No commands to undo!");
             return;
         }
 
-        OrderCommand lastCommand = commandHistory.pop();
-
         System.out.println("\n   ═══════════════════════════════════════");
         System.out.printf("   🎮 INVOKER: Undoing '%s' command\n", lastCommand.getCommandName());
         System.out.println("   ═══════════════════════════════════════");
 
-        lastCommand.undo();
-        executionLog.add(String.format("Undone: %s", lastCommand.getCommandName()));
+        undo(lastCommand);
     }
 
     public void undoAllCommands() {
@@ -50,11 +420,10 @@ public class OrderCommandInvoker {
         System.out.println("   🎮 INVOKER: Undoing ALL commands");
         System.out.println("   ═══════════════════════════════════════");
 
-        while (!commandHistory.isEmpty()) {
-            OrderCommand command = commandHistory.pop();
+        OrderCommand command;
+        while ((command = commandHistory.poll()) != null) {
             System.out.printf("\n   Undoing: %s\n", command.getCommandName());
-            command.undo();
-            executionLog.add(String.format("Undone: %s", command.getCommandName()));
+            undo(command);
         }
     }
 
@@ -62,25 +431,67 @@ public class OrderCommandInvoker {
         return commandHistory.size();
     }
 
+    // Orders that currently have commands queued or running
+    public int getActiveOrderCount() {
+        return mailboxes.size();
+    }
+
     public void displayHistory() {
         System.out.println("\n   ═══════════════════════════════════════");
         System.out.println("   📜 COMMAND EXECUTION LOG");
         System.out.println("   ═══════════════════════════════════════");
 
-        if (executionLog.isEmpty()) {
+        List<String> entries = new ArrayList<>(executionLog);
+        if (entries.isEmpty()) {
             System.out.println("   No commands executed yet.");
         } else {
-            for (int i = 0; i < executionLog.size(); i++) {
-                System.out.printf("   %d. %s\n", i + 1, executionLog.get(i));
+            long first = Math.max(1, loggedCount.get() - entries.size() + 1);
+            if (first > 1) {
+                System.out.printf("   (%d earlier entries trimmed)\n", first - 1);
+            }
+            for (int i = 0; i < entries.size(); i++) {
+                System.out.printf("   %d. %s\n", first + i, entries.get(i));
             }
         }
 
         System.out.printf("\n   Commands available for undo: %d\n", commandHistory.size());
     }
 
+    public UndoHistory getUndoHistory() {
+        return commandHistory;
+    }
+
     public void clearHistory() {
         commandHistory.clear();
         executionLog.clear();
+        logSize.set(0);
+        loggedCount.set(0);
         System.out.println("   🗑️  Command history cleared");
     }
-}
\ No newline at end of file
+
+    // Lets queued commands finish; new submissions are rejected
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        CommandPipeline stages;
+        synchronized (this) {
+            stages = pipeline;
+        }
+        if (stages != null) {
+            stages.shutdown(timeout, unit);
+        }
+        workers.shutdown();
+        workers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    // Rethrows the command's own exception instead of the CompletionException wrapper
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -2,51 +2,144 @@ package md.utm.tmps.domain.command;
 
 import md.utm.tmps.domain.models.Computer;
 import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.observer.OrderEvent;
 import md.utm.tmps.domain.observer.OrderManager;
+import md.utm.tmps.domain.strategy.FixedPriceStrategy;
 import md.utm.tmps.domain.strategy.PricingContext;
+import java.time.LocalDateTime;
+import java.util.List;
 
 // Command Pattern
 // Concrete Command - places a new order
-public class PlaceOrderCommand implements OrderCommand {
+public class PlaceOrderCommand implements StagedOrderCommand {
     private final OrderManager orderManager;
     private final String customerName;
     private final String customerEmail;
     private final Computer computer;
     private final PricingContext pricingContext;
+    // Set only when replaying a journal: the order is recreated under its original id
+    private final long replayOrderId;
+    private final LocalDateTime replayCreatedAt;
+    // Priced before it was stored (the staged pipeline), so ORDER_CREATED carried the final price
+    private boolean pricedBeforeStored;
+    // Priced but not yet stored - handed from the price stage to the persist stage
+    private Order draftOrder;
     private Order createdOrder;
 
     public PlaceOrderCommand(OrderManager orderManager, String customerName,
                              String customerEmail, Computer computer,
                              PricingContext pricingContext) {
+        this(orderManager, customerName, customerEmail, computer, pricingContext, 0, null);
+    }
+
+    private PlaceOrderCommand(OrderManager orderManager, String customerName, String customerEmail,
+                              Computer computer, PricingContext pricingContext,
+                              long replayOrderId, LocalDateTime replayCreatedAt) {
         this.orderManager = orderManager;
         this.customerName = customerName;
         this.customerEmail = customerEmail;
         this.computer = computer;
         this.pricingContext = pricingContext;
+        this.replayOrderId = replayOrderId;
+        this.replayCreatedAt = replayCreatedAt;
+    }
+
+    // A journaled placement: same order id and creation time, priced with the recorded outcome
+    static PlaceOrderCommand replay(OrderManager orderManager, long orderId, LocalDateTime createdAt,
+                                    String customerName, String customerEmail, Computer computer,
+                                    FixedPriceStrategy pricing, boolean pricedBeforeStored) {
+        PlaceOrderCommand command = new PlaceOrderCommand(orderManager, customerName, customerEmail, computer,
+                new PricingContext(pricing), orderId, createdAt);
+        command.pricedBeforeStored = pricedBeforeStored;
+        return command;
+    }
+
+    // A placed order read back from spilled undo history - only undo() is meaningful
+    static PlaceOrderCommand restore(OrderManager orderManager, Order createdOrder) {
+        PlaceOrderCommand command = new PlaceOrderCommand(orderManager, createdOrder.getCustomerName(),
+                createdOrder.getCustomerEmail(), createdOrder.getComputer(), null);
+        command.createdOrder = createdOrder;
+        return command;
     }
 
     @Override
     public void execute() {
         System.out.println("\n   ▶ Executing: Place Order Command");
 
-        // Create the order
-        createdOrder = orderManager.createOrder(customerName, customerEmail, computer);
+        if (pricedBeforeStored) {
+            // Replaying a pipeline placement: price first, as it originally was
+            price();
+            createdOrder = orderManager.addOrder(draftOrder);
+            draftOrder = null;
+        } else {
+            // Create the order
+            createdOrder = replayCreatedAt == null
+                    ? orderManager.createOrder(customerName, customerEmail, computer)
+                    : orderManager.createOrder(replayOrderId, customerName, customerEmail, computer, replayCreatedAt);
 
-        // Apply pricing strategy
-        pricingContext.executeStrategy(createdOrder);
+            // Apply pricing strategy
+            pricingContext.executeStrategy(createdOrder);
+        }
 
         // Confirm the order
-        orderManager.confirmOrder(createdOrder.getOrderId());
+        if (orderManager.confirmOrder(createdOrder.getOrderId())) {
+            System.out.printf("   ✅ Order %s placed successfully!\n", createdOrder.getOrderId());
+        } else {
+            System.out.printf("   ⚠️  Order %s created but could not be confirmed\n", createdOrder.getOrderId());
+        }
+    }
+
+    // Pipeline stages - the same steps as execute(), except the order is priced before it is
+    // stored, so its ORDER_CREATED event already carries the final price
+
+    @Override
+    public boolean validate() {
+        String problem = customerName == null || customerName.isBlank() ? "customer name is missing"
+                : customerEmail == null || !customerEmail.contains("@") ? "customer email is invalid"
+                : computer == null || computer.getBasePrice() <= 0 ? "computer has no price"
+                : null;
+        if (problem != null) {
+            System.out.printf("   ❌ Place Order rejected: %s\n", problem);
+        }
+        return problem == null;
+    }
 
-        System.out.printf("   ✅ Order %s placed successfully!\n", createdOrder.getOrderId());
+    @Override
+    public void price() {
+        draftOrder = replayCreatedAt == null
+                ? new Order(customerName, customerEmail, computer)
+                : new Order(replayOrderId, customerName, customerEmail, computer, replayCreatedAt);
+        pricingContext.executeStrategy(draftOrder);
+    }
+
+    @Override
+    public List<OrderEvent> persist() {
+        Order order = draftOrder;
+        List<OrderEvent> events = orderManager.captureNotifications(() -> {
+            orderManager.addOrder(order);
+            orderManager.confirmOrder(order.getOrderId());
+        });
+        createdOrder = order;
+        draftOrder = null;
+        pricedBeforeStored = true;
+        return events;
+    }
+
+    @Override
+    public void notifyObservers(List<OrderEvent> events) {
+        orderManager.publishEvents(events);
     }
 
     @Override
     public void undo() {
         if (createdOrder != null) {
             System.out.println("\n   ◀ Undoing: Place Order Command");
-            orderManager.cancelOrder(createdOrder.getOrderId());
-            System.out.printf("   ↩️  Order %s has been cancelled (undo)\n", createdOrder.getOrderId());
+            if (orderManager.cancelOrder(createdOrder.getOrderId())) {
+                System.out.printf("   ↩️  Order %s has been cancelled (undo)\n", createdOrder.getOrderId());
+            } else {
+                System.out.printf("   ⚠️  Order %s can no longer be cancelled (undo rejected)\n",
+                        createdOrder.getOrderId());
+            }
         }
     }
 
@@ -55,6 +148,20 @@ public class PlaceOrderCommand implements OrderCommand {
         return "Place Order";
     }
 
+    // Known up front only for replayed placements; afterwards (for undo) the placed order
+    @Override
+    public String getOrderId() {
+        if (createdOrder != null) {
+            return createdOrder.getOrderId();
+        }
+        return replayCreatedAt == null ? null : Order.formatId(replayOrderId);
+    }
+
+    @Override
+    public boolean wasApplied() {
+        return createdOrder != null;
+    }
+
     @Override
     public boolean isReversible() {
         return true;
@@ -63,4 +170,8 @@ public class PlaceOrderCommand implements OrderCommand {
     public Order getCreatedOrder() {
         return createdOrder;
     }
+
+    boolean isPricedBeforeStored() {
+        return pricedBeforeStored;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package md.utm.tmps.domain.command;
+
+import md.utm.tmps.domain.observer.OrderEvent;
+import java.util.List;
+
+// Command Pattern
+// A command that can also run as a pipeline: validate -> price -> persist -> notify
+// OrderCommandInvoker.submit() runs each stage on its own executor, one after the other;
+// execute() stays the plain synchronous path.
+public interface StagedOrderCommand extends OrderCommand {
+    // False rejects the command before anything is changed
+    boolean validate();
+
+    void price();
+
+    // Applies the change and returns the events it raised, not yet published
+    List<OrderEvent> persist();
+
+    void notifyObservers(List<OrderEvent> events);
+}
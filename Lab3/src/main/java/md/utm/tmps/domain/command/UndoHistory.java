@@ -0,0 +1,143 @@
+package md.utm.tmps.domain.command;
+
+import md.utm.tmps.domain.observer.OrderManager;
+import md.utm.tmps.domain.persistence.SpillStack;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Command Pattern
+// Bounded undo stack for OrderCommandInvoker
+// The newest commands live in a fixed ring, capped by count and by estimated retained bytes.
+// When the cap is hit the oldest command leaves the ring: with a spill file it is written in
+// a compact binary form and stays undoable (read back once the ring is empty), without one
+// it is dropped. Commands the codec doesn't know are always dropped when evicted.
+public class UndoHistory implements Closeable {
+    public static final int DEFAULT_MAX_COMMANDS = 1000;
+    public static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+
+    private final OrderCommand[] ring;
+    private final long[] ringBytes;
+    private final long maxBytes;
+    private final SpillStack spill;
+    private final OrderManager orderManager;
+    private int head;
+    private int size;
+    private long bytes;
+    private long droppedCount;
+
+    private UndoHistory(int maxCommands, long maxBytes, SpillStack spill, OrderManager orderManager) {
+        if (maxCommands < 1) {
+            throw new IllegalArgumentException("Undo history must hold at least one command");
+        }
+        this.ring = new OrderCommand[maxCommands];
+        this.ringBytes = new long[maxCommands];
+        this.maxBytes = maxBytes;
+        this.spill = spill;
+        this.orderManager = orderManager;
+    }
+
+    // Oldest commands beyond the caps are forgotten
+    public static UndoHistory inMemory(int maxCommands, long maxBytes) {
+        return new UndoHistory(maxCommands, maxBytes, null, null);
+    }
+
+    // Oldest commands beyond the caps move to the file; spilled commands are re-bound to orderManager
+    public static UndoHistory spillingTo(Path file, OrderManager orderManager,
+                                         int maxCommands, long maxBytes) throws IOException {
+        return new UndoHistory(maxCommands, maxBytes, new SpillStack(file), orderManager);
+    }
+
+    public synchronized void push(OrderCommand command) {
+        long cost = CommandCodec.estimatedBytes(command);
+        while (size == ring.length || (size > 0 && bytes + cost > maxBytes)) {
+            evictOldest();
+        }
+        int slot = (head + size) % ring.length;
+        ring[slot] = command;
+        ringBytes[slot] = cost;
+        bytes += cost;
+        size++;
+    }
+
+    // Most recent command, from the ring first and then from the spill file; null when empty
+    public synchronized OrderCommand poll() {
+        if (size > 0) {
+            int slot = (head + size - 1) % ring.length;
+            OrderCommand command = ring[slot];
+            ring[slot] = null;
+            bytes -= ringBytes[slot];
+            size--;
+            return command;
+        }
+        while (spill != null) {
+            byte[] record = spill.pop();
+            if (record == null) {
+                return null;
+            }
+            OrderCommand command = CommandCodec.decode(record, orderManager);
+            if (command != null) {
+                return command;
+            }
+            droppedCount++;
+        }
+        return null;
+    }
+
+    public synchronized int size() {
+        return size + getSpilledCount();
+    }
+
+    public synchronized int getInMemoryCount() {
+        return size;
+    }
+
+    public synchronized int getSpilledCount() {
+        return spill == null ? 0 : spill.size();
+    }
+
+    public synchronized long getEstimatedBytes() {
+        return bytes;
+    }
+
+    public synchronized long getSpilledBytes() {
+        return spill == null ? 0 : spill.sizeInBytes();
+    }
+
+    // Commands evicted without a way to undo them any more
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public synchronized void clear() {
+        while (size > 0) {
+            ring[(head + --size) % ring.length] = null;
+        }
+        head = 0;
+        bytes = 0;
+        if (spill != null) {
+            spill.clear();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        clear();
+        if (spill != null) {
+            spill.close();
+        }
+    }
+
+    private void evictOldest() {
+        OrderCommand oldest = ring[head];
+        bytes -= ringBytes[head];
+        ring[head] = null;
+        head = (head + 1) % ring.length;
+        size--;
+        if (spill != null && CommandCodec.canEncode(oldest)) {
+            spill.push(CommandCodec.encode(oldest));
+        } else {
+            droppedCount++;
+        }
+    }
+}
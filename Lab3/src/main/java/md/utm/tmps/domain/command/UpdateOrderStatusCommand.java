@@ -10,6 +10,7 @@ public class UpdateOrderStatusCommand implements OrderCommand {
     private final String orderId;
     private final Order.OrderStatus newStatus;
     private Order.OrderStatus previousStatus;
+    private boolean applied;
 
     public UpdateOrderStatusCommand(OrderManager orderManager, String orderId,
                                     Order.OrderStatus newStatus) {
@@ -18,16 +19,34 @@ public class UpdateOrderStatusCommand implements OrderCommand {
         this.newStatus = newStatus;
     }
 
+    // An applied update read back from spilled undo history
+    static UpdateOrderStatusCommand restore(OrderManager orderManager, String orderId,
+                                            Order.OrderStatus newStatus, Order.OrderStatus previousStatus) {
+        UpdateOrderStatusCommand command = new UpdateOrderStatusCommand(orderManager, orderId, newStatus);
+        command.previousStatus = previousStatus;
+        command.applied = true;
+        return command;
+    }
+
+    Order.OrderStatus getNewStatus() {
+        return newStatus;
+    }
+
+    Order.OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
     @Override
     public void execute() {
         System.out.println("\n   ▶ Executing: Update Order Status Command");
 
+        applied = false;
         Order order = orderManager.getOrder(orderId);
         if (order != null) {
             previousStatus = order.getStatus();
 
             // Execute the appropriate status change
-            switch (newStatus) {
+            applied = switch (newStatus) {
                 case PROCESSING -> orderManager.processOrder(orderId);
                 case SHIPPED -> orderManager.shipOrder(orderId);
                 case DELIVERED -> orderManager.deliverOrder(orderId);
@@ -35,12 +54,17 @@ public class UpdateOrderStatusCommand implements OrderCommand {
                 default -> {
                     System.out.printf("   ⚠️  Status change to %s not supported via command\n",
                             newStatus.getDescription());
-                    return;
+                    yield false;
                 }
-            }
+            };
 
-            System.out.printf("   ✅ Order %s status updated: %s → %s\n",
-                    orderId, previousStatus.getDescription(), newStatus.getDescription());
+            if (applied) {
+                System.out.printf("   ✅ Order %s status updated: %s → %s\n",
+                        orderId, previousStatus.getDescription(), newStatus.getDescription());
+            } else {
+                System.out.printf("   ❌ Order %s status not updated: %s → %s is not allowed\n",
+                        orderId, previousStatus.getDescription(), newStatus.getDescription());
+            }
         } else {
             System.out.printf("   ❌ Order %s not found!\n", orderId);
         }
@@ -50,25 +74,37 @@ public class UpdateOrderStatusCommand implements OrderCommand {
     public void undo() {
         System.out.println("\n   ◀ Undoing: Update Order Status Command");
 
-        Order order = orderManager.getOrder(orderId);
-        if (order != null && previousStatus != null) {
+        if (applied) {
             // For some status changes, undo might not make business sense
             if (newStatus == Order.OrderStatus.DELIVERED) {
                 System.out.println("   ⚠️  Cannot undo delivery - order already delivered");
                 return;
             }
 
-            order.setStatus(previousStatus);
-            System.out.printf("   ↩️  Order %s restored to: %s\n",
-                    orderId, previousStatus.getDescription());
+            if (orderManager.revertStatus(orderId, newStatus, previousStatus)) {
+                System.out.printf("   ↩️  Order %s restored to: %s\n",
+                        orderId, previousStatus.getDescription());
+            } else {
+                System.out.printf("   ⚠️  Order %s changed since the update - not restored\n", orderId);
+            }
         }
     }
 
+    @Override
+    public String getOrderId() {
+        return orderId;
+    }
+
     @Override
     public String getCommandName() {
         return "Update Order Status to " + newStatus.getDescription();
     }
 
+    @Override
+    public boolean wasApplied() {
+        return applied;
+    }
+
     @Override
     public boolean isReversible() {
         // Delivery cannot be reversed
@@ -0,0 +1,48 @@
+package md.utm.tmps.domain.inventory;
+
+// Streaming demand rate for one SKU (continuous-time exponential smoothing)
+// Every confirmation decays the previous rate by exp(-elapsed / timeConstant) and adds
+// units / timeConstant, so the estimate follows recent demand in O(1) per event
+// without keeping any history. Older events weigh less the further back they are.
+public class DemandForecast {
+    private static final double MILLIS_PER_DAY = 86_400_000.0;
+
+    private final double timeConstantMillis;
+    private double unitsPerMilli;
+    private long lastUpdateMillis;
+
+    public DemandForecast(long timeConstantMillis) {
+        if (timeConstantMillis <= 0) {
+            throw new IllegalArgumentException("Time constant must be positive: " + timeConstantMillis);
+        }
+        this.timeConstantMillis = timeConstantMillis;
+        this.lastUpdateMillis = -1;
+    }
+
+    public synchronized void record(long timestampMillis, int units) {
+        decayTo(timestampMillis);
+        unitsPerMilli += units / timeConstantMillis;
+    }
+
+    public synchronized double getUnitsPerDay(long nowMillis) {
+        decayTo(nowMillis);
+        return unitsPerMilli * MILLIS_PER_DAY;
+    }
+
+    // Time until the given stock runs out at the current rate; Long.MAX_VALUE with no demand
+    public long millisUntilStockOut(int stock, long nowMillis) {
+        double perDay = getUnitsPerDay(nowMillis);
+        if (stock <= 0) {
+            return 0;
+        }
+        return perDay <= 0 ? Long.MAX_VALUE : (long) (stock / perDay * MILLIS_PER_DAY);
+    }
+
+    // Out-of-order events are folded in at the latest time seen
+    private void decayTo(long timestampMillis) {
+        if (lastUpdateMillis >= 0 && timestampMillis > lastUpdateMillis) {
+            unitsPerMilli *= Math.exp(-(timestampMillis - lastUpdateMillis) / timeConstantMillis);
+        }
+        lastUpdateMillis = Math.max(lastUpdateMillis, timestampMillis);
+    }
+}
@@ -0,0 +1,48 @@
+package md.utm.tmps.domain.inventory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Turns the per-SKU demand forecast into low-stock / restock signals
+// A signal fires when the projected stock-out falls inside the horizon and is re-armed
+// once the projection moves back out of it (after a restock or a drop in demand).
+public class RestockForecaster {
+    private final Duration horizon;
+    private final Duration smoothing;
+    private final List<Consumer<RestockSignal>> listeners;
+
+    public RestockForecaster(Duration horizon, Duration smoothing) {
+        this.horizon = horizon;
+        this.smoothing = smoothing;
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    public StockLevel newStockLevel(String sku, int initialStock) {
+        return new StockLevel(sku, initialStock, smoothing.toMillis());
+    }
+
+    public void addListener(Consumer<RestockSignal> listener) {
+        listeners.add(listener);
+    }
+
+    // O(1): one read of the forecast and at most one flag flip
+    public void evaluate(StockLevel level, long nowMillis) {
+        int available = level.getAvailable();
+        long untilStockOut = level.getForecast().millisUntilStockOut(available, nowMillis);
+        if (untilStockOut > horizon.toMillis()) {
+            level.clearLowStock();
+            return;
+        }
+        if (level.markLowStock()) {
+            RestockSignal signal = new RestockSignal(level.getSku(), available,
+                    level.getForecast().getUnitsPerDay(nowMillis), Duration.ofMillis(untilStockOut));
+            listeners.forEach(listener -> listener.accept(signal));
+        }
+    }
+
+    public Duration getHorizon() {
+        return horizon;
+    }
+}
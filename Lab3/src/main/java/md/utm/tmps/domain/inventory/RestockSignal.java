@@ -0,0 +1,13 @@
+package md.utm.tmps.domain.inventory;
+
+import java.time.Duration;
+
+// Raised when a SKU is projected to run out within the forecast horizon
+public record RestockSignal(String sku,
+                            int available,
+                            double forecastUnitsPerDay,
+                            Duration projectedStockOut) {
+    public boolean isOutOfStock() {
+        return available <= 0;
+    }
+}
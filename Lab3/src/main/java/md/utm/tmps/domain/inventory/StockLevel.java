@@ -0,0 +1,57 @@
+package md.utm.tmps.domain.inventory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Available units of one SKU plus its demand forecast
+// Reservations are a compare-and-set loop that never takes stock below zero,
+// so concurrent confirmations cannot oversell and no lock is shared between SKUs.
+public class StockLevel {
+    private final String sku;
+    private final AtomicInteger available;
+    private final DemandForecast forecast;
+    private final AtomicBoolean lowStockSignalled;
+
+    public StockLevel(String sku, int initialStock, long forecastTimeConstantMillis) {
+        this.sku = sku;
+        this.available = new AtomicInteger(initialStock);
+        this.forecast = new DemandForecast(forecastTimeConstantMillis);
+        this.lowStockSignalled = new AtomicBoolean(false);
+    }
+
+    // Reserves up to the requested units and returns how many were actually reserved
+    public int tryReserve(int units) {
+        while (true) {
+            int current = available.get();
+            int reserved = Math.min(current, units);
+            if (reserved <= 0) {
+                return 0;
+            }
+            if (available.compareAndSet(current, current - reserved)) {
+                return reserved;
+            }
+        }
+    }
+
+    // Cancellations and restocks; returns the new stock
+    public int release(int units) {
+        return available.addAndGet(units);
+    }
+
+    public void recordDemand(long timestampMillis, int units) {
+        forecast.record(timestampMillis, units);
+    }
+
+    public String getSku() { return sku; }
+    public int getAvailable() { return available.get(); }
+    public DemandForecast getForecast() { return forecast; }
+
+    // Only the first caller after a recovery gets true, so a shortage is signalled once
+    boolean markLowStock() {
+        return lowStockSignalled.compareAndSet(false, true);
+    }
+
+    void clearLowStock() {
+        lowStockSignalled.set(false);
+    }
+}
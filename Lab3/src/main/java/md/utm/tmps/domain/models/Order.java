@@ -1,19 +1,28 @@
 package md.utm.tmps.domain.models;
 
+import md.utm.tmps.utilities.IdGenerator;
+import md.utm.tmps.utilities.TimeOrderedIdGenerator;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 // Order model that tracks computer orders
 public class Order {
-    private final String orderId;
+    private static final String ID_PREFIX = "ORD-";
+    private static volatile IdGenerator idGenerator = TimeOrderedIdGenerator.getDefault();
+
+    private final long id;
+    private String orderId; // rendered lazily from id
     private final String customerName;
     private final String customerEmail;
     private final Computer computer;
-    private OrderStatus status;
-    private double finalPrice;
+    private final AtomicReference<OrderStatus> status;
+    private volatile double finalPrice;
     private final LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
-    private String discountApplied;
+    private volatile LocalDateTime updatedAt;
+    private volatile String discountApplied;
+    private volatile String pricingStrategy;
 
     public enum OrderStatus {
         CREATED("Order Created"),
@@ -24,6 +33,18 @@ public class Order {
         CANCELLED("Cancelled");
 
         private final String description;
+        private Set<OrderStatus> allowedNext;
+
+        // Lifecycle: CREATED -> CONFIRMED -> PROCESSING -> SHIPPED -> DELIVERED,
+        // cancellation is only possible before the order ships
+        static {
+            CREATED.allowedNext = EnumSet.of(CONFIRMED, CANCELLED);
+            CONFIRMED.allowedNext = EnumSet.of(PROCESSING, CANCELLED);
+            PROCESSING.allowedNext = EnumSet.of(SHIPPED, CANCELLED);
+            SHIPPED.allowedNext = EnumSet.of(DELIVERED);
+            DELIVERED.allowedNext = EnumSet.noneOf(OrderStatus.class);
+            CANCELLED.allowedNext = EnumSet.noneOf(OrderStatus.class);
+        }
 
         OrderStatus(String description) {
             this.description = description;
@@ -32,35 +53,119 @@ public class Order {
         public String getDescription() {
             return description;
         }
+
+        public boolean canTransitionTo(OrderStatus next) {
+            return allowedNext.contains(next);
+        }
+
+        public boolean isTerminal() {
+            return allowedNext.isEmpty();
+        }
     }
 
     public Order(String customerName, String customerEmail, Computer computer) {
-        this.orderId = "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        this(idGenerator.nextId(), customerName, customerEmail, computer);
+    }
+
+    public Order(long id, String customerName, String customerEmail, Computer computer) {
+        this.id = id;
         this.customerName = customerName;
         this.customerEmail = customerEmail;
         this.computer = computer;
-        this.status = OrderStatus.CREATED;
+        this.status = new AtomicReference<>(OrderStatus.CREATED);
         this.finalPrice = computer.getBasePrice();
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
         this.discountApplied = "None";
+        this.pricingStrategy = "None";
+    }
+
+    // Restores a persisted order; status, price and discount follow via restoreState
+    public Order(long id, String customerName, String customerEmail,
+                 Computer computer, LocalDateTime createdAt) {
+        this.id = id;
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.computer = computer;
+        this.status = new AtomicReference<>(OrderStatus.CREATED);
+        this.finalPrice = computer.getBasePrice();
+        this.createdAt = createdAt;
+        this.updatedAt = createdAt;
+        this.discountApplied = "None";
+        this.pricingStrategy = "None";
+    }
+
+    // Replaces the generator used by new orders (e.g. to give each node its own node id)
+    public static void setIdGenerator(IdGenerator generator) {
+        idGenerator = generator;
+    }
+
+    public static String formatId(long id) {
+        return ID_PREFIX + Long.toString(id, 36).toUpperCase();
+    }
+
+    public static long parseId(String orderId) {
+        if (!orderId.startsWith(ID_PREFIX)) {
+            throw new IllegalArgumentException("Not an order id: " + orderId);
+        }
+        return Long.parseLong(orderId.substring(ID_PREFIX.length()), 36);
     }
 
     // Getters
-    public String getOrderId() { return orderId; }
+    public long getId() { return id; }
+
+    // Benign race: concurrent callers may both render, but always the same value
+    public String getOrderId() {
+        String rendered = orderId;
+        if (rendered == null) {
+            rendered = formatId(id);
+            orderId = rendered;
+        }
+        return rendered;
+    }
+
     public String getCustomerName() { return customerName; }
     public String getCustomerEmail() { return customerEmail; }
     public Computer getComputer() { return computer; }
-    public OrderStatus getStatus() { return status; }
+    public OrderStatus getStatus() { return status.get(); }
     public double getFinalPrice() { return finalPrice; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public String getDiscountApplied() { return discountApplied; }
+    public String getPricingStrategy() { return pricingStrategy; }
 
     // Setters
-    public void setStatus(OrderStatus status) {
-        this.status = status;
-        this.updatedAt = LocalDateTime.now();
+    // Validated transition; throws if the lifecycle does not allow it
+    public void setStatus(OrderStatus next) {
+        if (!transitionTo(next)) {
+            throw new IllegalStateException(String.format("Order %s cannot move from %s to %s",
+                    getOrderId(), getStatus(), next));
+        }
+    }
+
+    // Lock-free validated transition: re-reads and retries the compare-and-set until it
+    // either wins or the current status no longer allows the move
+    public boolean transitionTo(OrderStatus next) {
+        while (true) {
+            OrderStatus current = status.get();
+            if (!current.canTransitionTo(next)) {
+                return false;
+            }
+            if (status.compareAndSet(current, next)) {
+                this.updatedAt = LocalDateTime.now();
+                return true;
+            }
+        }
+    }
+
+    // Compensating move used by undo - bypasses the lifecycle table but only applies
+    // if nobody changed the status since the undone command ran
+    public boolean revertStatus(OrderStatus expectedCurrent, OrderStatus restored) {
+        if (status.compareAndSet(expectedCurrent, restored)) {
+            this.updatedAt = LocalDateTime.now();
+            return true;
+        }
+        return false;
     }
 
     public void setFinalPrice(double finalPrice) {
@@ -72,6 +177,20 @@ public class Order {
         this.discountApplied = discountApplied;
     }
 
+    public void setPricingStrategy(String pricingStrategy) {
+        this.pricingStrategy = pricingStrategy;
+    }
+
+    // Used when replaying persisted state - keeps the recorded timestamp
+    public void restoreState(OrderStatus status, double finalPrice, String discountApplied,
+                             String pricingStrategy, LocalDateTime updatedAt) {
+        this.status.set(status);
+        this.finalPrice = finalPrice;
+        this.discountApplied = discountApplied;
+        this.pricingStrategy = pricingStrategy;
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public String toString() {
         return String.format("""
@@ -85,8 +204,8 @@ public class Order {
             Final Price: $%.2f
             Created: %s
             ══════════════════════════════════════
-            """, orderId, customerName, customerEmail,
-                status.getDescription(), computer.getName(),
+            """, getOrderId(), customerName, customerEmail,
+                getStatus().getDescription(), computer.getName(),
                 computer.getBasePrice(), discountApplied, finalPrice,
                 createdAt.toString());
     }
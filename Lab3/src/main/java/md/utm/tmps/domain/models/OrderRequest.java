@@ -0,0 +1,4 @@
+package md.utm.tmps.domain.models;
+
+// Input for bulk order creation - one entry per order to be created
+public record OrderRequest(String customerName, String customerEmail, Computer computer) {}
@@ -0,0 +1,18 @@
+package md.utm.tmps.domain.notification;
+
+import java.util.List;
+
+// Prints notifications instead of emailing them (demo channel)
+public class ConsoleNotificationSender implements NotificationSender {
+    @Override
+    public void send(List<Notification> batch) {
+        for (Notification notification : batch) {
+            send(notification);
+        }
+    }
+
+    @Override
+    public void send(Notification notification) {
+        System.out.println("   " + notification.body());
+    }
+}
@@ -0,0 +1,102 @@
+package md.utm.tmps.domain.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Notification text compiled once into literal segments and field slots
+// A pattern such as "Order {order} shipped to {email}" is parsed at startup; rendering
+// just appends the segments to a reused StringBuilder, with no format-string parsing
+// and no boxing. Supported fields: {email}, {order}, {computer}, {total}.
+public final class MessageTemplate {
+    public enum Field {
+        EMAIL("email"),
+        ORDER("order"),
+        COMPUTER("computer"),
+        TOTAL("total");
+
+        private final String placeholder;
+
+        Field(String placeholder) {
+            this.placeholder = placeholder;
+        }
+    }
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    private final String pattern;
+    private final String[] literals; // literals[i] precedes fields[i]; the last one trails
+    private final Field[] fields;
+
+    private MessageTemplate(String pattern, String[] literals, Field[] fields) {
+        this.pattern = pattern;
+        this.literals = literals;
+        this.fields = fields;
+    }
+
+    public static MessageTemplate compile(String pattern) {
+        List<String> literals = new ArrayList<>();
+        List<Field> fields = new ArrayList<>();
+        int start = 0;
+        int open = pattern.indexOf('{');
+        while (open >= 0) {
+            int close = pattern.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in template: " + pattern);
+            }
+            literals.add(pattern.substring(start, open));
+            fields.add(fieldFor(pattern.substring(open + 1, close), pattern));
+            start = close + 1;
+            open = pattern.indexOf('{', start);
+        }
+        literals.add(pattern.substring(start));
+        return new MessageTemplate(pattern, literals.toArray(new String[0]), fields.toArray(new Field[0]));
+    }
+
+    public void renderTo(StringBuilder out, String email, String orderId, String computer, long totalCents) {
+        for (int i = 0; i < fields.length; i++) {
+            out.append(literals[i]);
+            switch (fields[i]) {
+                case EMAIL -> out.append(email);
+                case ORDER -> out.append(orderId);
+                case COMPUTER -> out.append(computer);
+                case TOTAL -> appendMoney(out, totalCents);
+            }
+        }
+        out.append(literals[fields.length]);
+    }
+
+    // Renders into the calling thread's buffer; the returned String is the only allocation
+    public String render(String email, String orderId, String computer, long totalCents) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        renderTo(out, email, orderId, computer, totalCents);
+        return out.toString();
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    // Dollars and cents without going through a Formatter
+    static void appendMoney(StringBuilder out, long cents) {
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        out.append(cents / 100).append('.');
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+
+    private static Field fieldFor(String name, String pattern) {
+        for (Field field : Field.values()) {
+            if (field.placeholder.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown placeholder {" + name + "} in template: " + pattern);
+    }
+}
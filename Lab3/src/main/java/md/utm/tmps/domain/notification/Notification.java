@@ -0,0 +1,5 @@
+package md.utm.tmps.domain.notification;
+
+// One rendered customer message; coalescedEvents > 1 when several updates were merged into it
+public record Notification(String recipient, String orderId, String body, int coalescedEvents) {
+}
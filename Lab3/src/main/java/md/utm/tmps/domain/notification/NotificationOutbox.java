@@ -0,0 +1,121 @@
+package md.utm.tmps.domain.notification;
+
+import md.utm.tmps.domain.models.Order;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Coalescing outbox between the notification observer and the sender
+// Updates to the same order that arrive within the window are merged into one message
+// (e.g. CONFIRMED + PROCESSING). The window starts at an order's first pending update,
+// so no message waits longer than the window. Due messages go out in batches.
+public class NotificationOutbox implements Closeable {
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final long windowMillis;
+    private final int batchSize;
+    private final NotificationTemplates templates;
+    private final NotificationSender sender;
+    private final Map<String, Pending> pending;
+    private final ScheduledExecutorService flusher;
+
+    // Updates of one order waiting to be sent; only touched under the map's bin lock
+    private static final class Pending {
+        private final String email;
+        private final long dueAtMillis;
+        private final List<Order.OrderStatus> statuses;
+        private String computer;
+        private long totalCents;
+
+        private Pending(String email, long dueAtMillis) {
+            this.email = email;
+            this.dueAtMillis = dueAtMillis;
+            this.statuses = new ArrayList<>(4);
+        }
+    }
+
+    public NotificationOutbox(Duration window, NotificationTemplates templates, NotificationSender sender) {
+        this(window, DEFAULT_BATCH_SIZE, templates, sender);
+    }
+
+    public NotificationOutbox(Duration window, int batchSize, NotificationTemplates templates,
+                              NotificationSender sender) {
+        this.windowMillis = Math.max(1, window.toMillis());
+        this.batchSize = Math.max(1, batchSize);
+        this.templates = templates;
+        this.sender = sender;
+        this.pending = new ConcurrentHashMap<>();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tick = Math.max(1, windowMillis / 4);
+        flusher.scheduleWithFixedDelay(() -> drain(false), tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    public void offer(String orderId, String email, String computer, long totalCents, Order.OrderStatus status) {
+        long now = System.currentTimeMillis();
+        pending.compute(orderId, (id, entry) -> {
+            Pending updated = entry != null ? entry : new Pending(email, now + windowMillis);
+            updated.statuses.add(status);
+            updated.computer = computer;
+            updated.totalCents = totalCents;
+            return updated;
+        });
+    }
+
+    // Sends everything still pending, due or not
+    public void flush() {
+        drain(true);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private synchronized void drain(boolean all) {
+        long now = System.currentTimeMillis();
+        List<Notification> batch = new ArrayList<>();
+        for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+            Pending updates = entry.getValue();
+            if ((all || updates.dueAtMillis <= now) && pending.remove(entry.getKey(), updates)) {
+                batch.add(templates.render(updates.email, entry.getKey(), updates.computer,
+                        updates.totalCents, updates.statuses));
+                if (batch.size() == batchSize) {
+                    sendQuietly(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            sendQuietly(batch);
+        }
+    }
+
+    // A failing gateway must not kill the flusher thread
+    private void sendQuietly(List<Notification> batch) {
+        try {
+            sender.send(batch);
+        } catch (RuntimeException e) {
+            System.out.printf("   ❌ Notification batch of %d failed: %s\n", batch.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package md.utm.tmps.domain.notification;
+
+import java.util.List;
+
+// Delivery channel for customer notifications (email gateway, console, ...)
+// Implementations receive whole batches so a gateway can submit them in one request
+public interface NotificationSender {
+    void send(List<Notification> batch);
+
+    default void send(Notification notification) {
+        send(List.of(notification));
+    }
+}
@@ -0,0 +1,65 @@
+package md.utm.tmps.domain.notification;
+
+import md.utm.tmps.domain.models.Order;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// The customer-facing message for every order status, compiled once
+public class NotificationTemplates {
+    private final Map<Order.OrderStatus, MessageTemplate> templates;
+
+    public NotificationTemplates(Map<Order.OrderStatus, String> patterns) {
+        this.templates = new EnumMap<>(Order.OrderStatus.class);
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            String pattern = patterns.get(status);
+            if (pattern == null) {
+                throw new IllegalArgumentException("Missing notification template for " + status);
+            }
+            templates.put(status, MessageTemplate.compile(pattern));
+        }
+    }
+
+    public static NotificationTemplates defaults() {
+        Map<Order.OrderStatus, String> patterns = new EnumMap<>(Order.OrderStatus.class);
+        patterns.put(Order.OrderStatus.CREATED,
+                "📧 Email to {email}: Your order {order} has been created! Total: ${total}");
+        patterns.put(Order.OrderStatus.CONFIRMED,
+                "📧 Email to {email}: Order {order} confirmed! We're preparing your {computer}.");
+        patterns.put(Order.OrderStatus.PROCESSING,
+                "📧 Email to {email}: Order {order} is being assembled!");
+        patterns.put(Order.OrderStatus.SHIPPED,
+                "📧 Email to {email}: Order {order} has been shipped! Track your delivery.");
+        patterns.put(Order.OrderStatus.DELIVERED,
+                "📧 Email to {email}: Order {order} delivered! Enjoy your new {computer}!");
+        patterns.put(Order.OrderStatus.CANCELLED,
+                "📧 Email to {email}: Order {order} has been cancelled. Refund initiated.");
+        return new NotificationTemplates(patterns);
+    }
+
+    public Notification render(String email, String orderId, String computer, long totalCents,
+                               Order.OrderStatus status) {
+        return new Notification(email, orderId,
+                templates.get(status).render(email, orderId, computer, totalCents), 1);
+    }
+
+    // Several updates in one message: the latest status's text plus the path that led to it
+    public Notification render(String email, String orderId, String computer, long totalCents,
+                               List<Order.OrderStatus> statuses) {
+        Order.OrderStatus latest = statuses.get(statuses.size() - 1);
+        if (statuses.size() == 1) {
+            return render(email, orderId, computer, totalCents, latest);
+        }
+        StringBuilder body = new StringBuilder(160);
+        templates.get(latest).renderTo(body, email, orderId, computer, totalCents);
+        body.append(" [Updates: ");
+        for (int i = 0; i < statuses.size(); i++) {
+            if (i > 0) {
+                body.append(" → ");
+            }
+            body.append(statuses.get(i).getDescription());
+        }
+        body.append(']');
+        return new Notification(email, orderId, body.toString(), statuses.size());
+    }
+}
@@ -1,73 +1,204 @@
 package md.utm.tmps.domain.observer;
 
-import md.utm.tmps.domain.models.Order;
-import java.util.HashMap;
+import md.utm.tmps.domain.analytics.DistinctAnalytics;
+import md.utm.tmps.domain.analytics.LogLinearHistogram;
+import md.utm.tmps.domain.analytics.PopularityTracker;
+import md.utm.tmps.domain.analytics.ProductCount;
+import md.utm.tmps.domain.analytics.StatusTransition;
+import md.utm.tmps.domain.analytics.TimeWindow;
+import md.utm.tmps.domain.analytics.WindowStats;
+import md.utm.tmps.domain.analytics.WindowedAnalytics;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 // Observer Pattern
 // Concrete Observer - tracks analytics and statistics
-public class AnalyticsObserver implements OrderObserver {
+// Counters are striped LongAdders, so concurrent notifications never lose increments
+// and never queue up behind a shared lock. Product popularity goes through a PopularityTracker:
+// exact by default, or a fixed-memory Space-Saving sketch for large catalogs.
+public class AnalyticsObserver implements OrderEventListener {
+    public static final int TOP_PRODUCTS = 10;
+
     private final String observerName = "Analytics & Reporting System";
-    private int totalOrdersCreated;
-    private int totalOrdersCompleted;
-    private int totalOrdersCancelled;
-    private double totalRevenue;
-    private final Map<String, Integer> productPopularity;
+    private final LongAdder totalOrdersCreated;
+    private final LongAdder totalOrdersCompleted;
+    private final LongAdder totalOrdersCancelled;
+    private final LongAdder totalRevenueCents;
+    private final PopularityTracker productPopularity;
+    private final WindowedAnalytics windowedAnalytics;
+    private final DistinctAnalytics distinctAnalytics;
 
     public AnalyticsObserver() {
-        this.totalOrdersCreated = 0;
-        this.totalOrdersCompleted = 0;
-        this.totalOrdersCancelled = 0;
-        this.totalRevenue = 0.0;
-        this.productPopularity = new HashMap<>();
+        this(PopularityTracker.exact());
+    }
+
+    public AnalyticsObserver(PopularityTracker productPopularity) {
+        this.totalOrdersCreated = new LongAdder();
+        this.totalOrdersCompleted = new LongAdder();
+        this.totalOrdersCancelled = new LongAdder();
+        this.totalRevenueCents = new LongAdder();
+        this.productPopularity = productPopularity;
+        this.windowedAnalytics = new WindowedAnalytics();
+        this.distinctAnalytics = new DistinctAnalytics();
     }
 
     @Override
-    public void update(Order order, String eventType) {
-        switch (eventType) {
-            case "ORDER_CREATED" -> {
-                totalOrdersCreated++;
-                String productName = order.getComputer().getName();
-                productPopularity.merge(productName, 1, Integer::sum);
-                System.out.printf("   📊 Analytics: New order recorded. Total orders: %d\n", totalOrdersCreated);
+    public void onEvent(OrderEvent event) {
+        recordRollups(event);
+        switch (event.type()) {
+            case ORDER_CREATED -> {
+                totalOrdersCreated.increment();
+                recordProduct(event.computerName(), 1);
+                System.out.printf("   📊 Analytics: New order recorded. Total orders: %d\n", totalOrdersCreated.sum());
             }
-            case "ORDER_DELIVERED" -> {
-                totalOrdersCompleted++;
-                totalRevenue += order.getFinalPrice();
-                System.out.printf("   📊 Analytics: Order completed! Total revenue: $%.2f\n", totalRevenue);
+            case ORDER_DELIVERED -> {
+                totalOrdersCompleted.increment();
+                totalRevenueCents.add(toCents(event.finalPrice()));
+                System.out.printf("   📊 Analytics: Order completed! Total revenue: $%.2f\n", getTotalRevenue());
             }
-            case "ORDER_CANCELLED" -> {
-                totalOrdersCancelled++;
+            case ORDER_CANCELLED -> {
+                totalOrdersCancelled.increment();
                 System.out.printf("   📊 Analytics: Order cancelled. Cancellation rate: %.1f%%\n",
-                        (double) totalOrdersCancelled / totalOrdersCreated * 100);
+                        snapshot().getCancellationRate());
             }
             default -> {
                 System.out.printf("   📊 Analytics: Order %s - Status: %s\n",
-                        order.getOrderId(), order.getStatus().getDescription());
+                        event.orderId(), event.status().getDescription());
             }
         }
     }
 
+    // Single pass over a bulk batch - one summary line instead of one per order
+    @Override
+    public void onEvents(List<OrderEvent> events) {
+        int created = 0;
+        int completed = 0;
+        int cancelled = 0;
+        long revenueCents = 0;
+        Map<String, Integer> products = new LinkedHashMap<>();
+        for (OrderEvent event : events) {
+            recordRollups(event);
+            switch (event.type()) {
+                case ORDER_CREATED -> {
+                    created++;
+                    products.merge(event.computerName(), 1, Integer::sum);
+                }
+                case ORDER_DELIVERED -> {
+                    completed++;
+                    revenueCents += toCents(event.finalPrice());
+                }
+                case ORDER_CANCELLED -> cancelled++;
+                default -> {
+                    // Intermediate statuses are not aggregated
+                }
+            }
+        }
+        // One add per counter for the whole batch
+        products.forEach(this::recordProduct);
+        totalOrdersCreated.add(created);
+        totalOrdersCompleted.add(completed);
+        totalOrdersCancelled.add(cancelled);
+        totalRevenueCents.add(revenueCents);
+        System.out.printf("   📊 Analytics: Batch of %d events - %d created, %d completed, %d cancelled. Total orders: %d\n",
+                events.size(), created, completed, cancelled, totalOrdersCreated.sum());
+    }
+
+    // Outcomes are read before creations, so a snapshot taken under load never reports
+    // more completed or cancelled orders than created ones
+    public AnalyticsSnapshot snapshot() {
+        long completed = totalOrdersCompleted.sum();
+        long cancelled = totalOrdersCancelled.sum();
+        long revenueCents = totalRevenueCents.sum();
+        List<ProductCount> topProducts = productPopularity.topProducts(TOP_PRODUCTS);
+        long created = totalOrdersCreated.sum();
+        return new AnalyticsSnapshot(created, completed, cancelled, revenueCents, topProducts);
+    }
+
+    private void recordRollups(OrderEvent event) {
+        windowedAnalytics.record(event.orderId(), event.status(), event.timestamp(), toCents(event.finalPrice()));
+        // Distinct counts use confirmed orders - by then the pricing strategy is settled
+        if (event.type() == OrderEventType.ORDER_CONFIRMED) {
+            distinctAnalytics.record(event.timestamp(), event.pricingStrategy(),
+                    event.customerEmail(), event.computerName());
+        }
+    }
+
+    private void recordProduct(String productName, int count) {
+        productPopularity.record(productName, count);
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
     @Override
     public String getObserverName() {
         return observerName;
     }
 
     public void displayStatistics() {
+        AnalyticsSnapshot stats = snapshot();
         System.out.println("\n   ═══════════════════════════════════════");
         System.out.println("   📈 ANALYTICS DASHBOARD");
         System.out.println("   ═══════════════════════════════════════");
-        System.out.printf("   Total Orders Created: %d\n", totalOrdersCreated);
-        System.out.printf("   Orders Completed: %d\n", totalOrdersCompleted);
-        System.out.printf("   Orders Cancelled: %d\n", totalOrdersCancelled);
-        System.out.printf("   Total Revenue: $%.2f\n", totalRevenue);
-        System.out.println("\n   Product Popularity:");
-        productPopularity.forEach((product, count) ->
-                System.out.printf("   - %s: %d orders\n", product, count));
+        System.out.printf("   Total Orders Created: %d\n", stats.totalOrdersCreated());
+        System.out.printf("   Orders Completed: %d\n", stats.totalOrdersCompleted());
+        System.out.printf("   Orders Cancelled: %d\n", stats.totalOrdersCancelled());
+        System.out.printf("   Total Revenue: $%.2f\n", stats.getTotalRevenue());
+        System.out.printf("\n   Product Popularity (%s):\n", productPopularity.getMode());
+        for (ProductCount product : stats.topProducts()) {
+            if (product.maxError() == 0) {
+                System.out.printf("   - %s: %d orders\n", product.product(), product.count());
+            } else {
+                System.out.printf("   - %s: %d orders (±%d)\n", product.product(), product.count(), product.maxError());
+            }
+        }
+        displayRollingStatistics();
+        displayDistinctCounts();
         System.out.println("   ═══════════════════════════════════════");
     }
 
-    public int getTotalOrdersCreated() { return totalOrdersCreated; }
-    public int getTotalOrdersCompleted() { return totalOrdersCompleted; }
-    public double getTotalRevenue() { return totalRevenue; }
+    private void displayRollingStatistics() {
+        System.out.println("\n   Rolling Windows:");
+        for (TimeWindow window : TimeWindow.values()) {
+            WindowStats stats = windowedAnalytics.getStats(window);
+            LogLinearHistogram values = windowedAnalytics.getOrderValues(window);
+            System.out.printf("   - %s: %d created, %d cancelled, %d delivered, $%.2f revenue"
+                            + " | order value p50 $%.2f, p99 $%.2f\n",
+                    window.getLabel(), stats.ordersCreated(), stats.ordersCancelled(),
+                    stats.ordersDelivered(), stats.getRevenue(),
+                    values.valueAtPercentile(50) / 100.0, values.valueAtPercentile(99) / 100.0);
+        }
+        System.out.println("\n   Time Between Statuses (last hour):");
+        for (StatusTransition transition : windowedAnalytics.getTrackedTransitions()) {
+            LogLinearHistogram times = windowedAnalytics.getTransitionTimes(transition, TimeWindow.HOUR);
+            if (times.getTotalCount() > 0) {
+                System.out.printf("   - %s: p50 %d ms, p99 %d ms, p99.9 %d ms\n", transition,
+                        times.valueAtPercentile(50), times.valueAtPercentile(99), times.valueAtPercentile(99.9));
+            }
+        }
+    }
+
+    private void displayDistinctCounts() {
+        LocalDate today = DistinctAnalytics.dayOf(System.currentTimeMillis());
+        System.out.println("\n   Distinct Customers / Configurations (approximate):");
+        System.out.printf("   - Today: %d customers, %d configurations\n",
+                distinctAnalytics.getDistinctCustomers(today), distinctAnalytics.getDistinctConfigurations(today));
+        for (String strategy : distinctAnalytics.getPricingStrategies()) {
+            System.out.printf("   - %s: %d customers, %d configurations\n", strategy,
+                    distinctAnalytics.getDistinctCustomers(strategy), distinctAnalytics.getDistinctConfigurations(strategy));
+        }
+    }
+
+    public long getTotalOrdersCreated() { return totalOrdersCreated.sum(); }
+    public long getTotalOrdersCompleted() { return totalOrdersCompleted.sum(); }
+    public long getTotalOrdersCancelled() { return totalOrdersCancelled.sum(); }
+    public long getTotalRevenueCents() { return totalRevenueCents.sum(); }
+    public double getTotalRevenue() { return totalRevenueCents.sum() / 100.0; }
+    public WindowedAnalytics getWindowedAnalytics() { return windowedAnalytics; }
+    public DistinctAnalytics getDistinctAnalytics() { return distinctAnalytics; }
+    public PopularityTracker getProductPopularity() { return productPopularity; }
 }
\ No newline at end of file
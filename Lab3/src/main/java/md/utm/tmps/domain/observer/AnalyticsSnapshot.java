@@ -0,0 +1,20 @@
+package md.utm.tmps.domain.observer;
+
+import md.utm.tmps.domain.analytics.ProductCount;
+import java.util.List;
+
+// Point-in-time copy of the analytics counters
+// Revenue is kept in cents so repeated additions stay exact
+public record AnalyticsSnapshot(long totalOrdersCreated,
+                                long totalOrdersCompleted,
+                                long totalOrdersCancelled,
+                                long totalRevenueCents,
+                                List<ProductCount> topProducts) {
+    public double getTotalRevenue() {
+        return totalRevenueCents / 100.0;
+    }
+
+    public double getCancellationRate() {
+        return totalOrdersCreated == 0 ? 0 : (double) totalOrdersCancelled / totalOrdersCreated * 100;
+    }
+}
@@ -0,0 +1,141 @@
+package md.utm.tmps.domain.observer;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Asynchronous observer delivery built on java.util.concurrent.Flow
+// Every listener gets its own bounded publisher/subscriber pair, so a slow listener
+// only fills its own buffer and the order mutation path returns once the event is enqueued.
+// Events are routed by type, so a listener's buffer only ever holds events it subscribed to.
+// With OverflowPolicy.FAIL the manager reserves room in every target buffer before applying
+// a change, so a full observer refuses the change instead of silently losing its event.
+public class AsyncObserverDispatcher {
+    private final int bufferCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final ExecutorService executor;
+    private final Map<OrderEventListener, BoundedObserverPublisher<OrderEvent>> publishers;
+    private final EventRoutingTable<BoundedObserverPublisher<OrderEvent>> routing;
+
+    public AsyncObserverDispatcher(int bufferCapacity, OverflowPolicy overflowPolicy) {
+        this.bufferCapacity = bufferCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "order-observer-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.publishers = new ConcurrentHashMap<>();
+        this.routing = new EventRoutingTable<>();
+    }
+
+    public void attach(OrderEventListener listener) {
+        attach(listener, EnumSet.allOf(OrderEventType.class));
+    }
+
+    public void attach(OrderEventListener listener, Set<OrderEventType> eventTypes) {
+        publishers.computeIfAbsent(listener, key -> {
+            BoundedObserverPublisher<OrderEvent> publisher =
+                    new BoundedObserverPublisher<>(bufferCapacity, overflowPolicy, executor);
+            publisher.subscribe(new ObserverSubscriber(key, Math.min(bufferCapacity, 64)));
+            routing.subscribe(publisher, eventTypes);
+            return publisher;
+        });
+    }
+
+    public void detach(OrderEventListener listener) {
+        BoundedObserverPublisher<OrderEvent> publisher = publishers.remove(listener);
+        if (publisher != null) {
+            routing.unsubscribe(publisher);
+            publisher.close();
+        }
+    }
+
+    // Throws IllegalStateException (reserving nothing) when a FAIL buffer has no room for count
+    // more events of this type; a no-op under the other policies
+    public void reserve(OrderEventType type, int count) {
+        if (overflowPolicy != OverflowPolicy.FAIL || count <= 0) {
+            return;
+        }
+        List<BoundedObserverPublisher<OrderEvent>> targets = routing.targetsFor(type);
+        for (int i = 0; i < targets.size(); i++) {
+            if (!targets.get(i).tryReserve(count)) {
+                for (int j = 0; j < i; j++) {
+                    targets.get(j).release(count);
+                }
+                throw new IllegalStateException(String.format("Observer %s cannot take %d more %s event(s)",
+                        listenerOf(targets.get(i)), count, type));
+            }
+        }
+    }
+
+    // Returns reservations whose events will not be dispatched (the change was rejected)
+    public void release(OrderEventType type, int count) {
+        if (overflowPolicy != OverflowPolicy.FAIL || count <= 0) {
+            return;
+        }
+        for (BoundedObserverPublisher<OrderEvent> publisher : routing.targetsFor(type)) {
+            publisher.release(count);
+        }
+    }
+
+    private String listenerOf(BoundedObserverPublisher<OrderEvent> publisher) {
+        return publishers.entrySet().stream()
+                .filter(entry -> entry.getValue() == publisher)
+                .map(entry -> entry.getKey().getObserverName())
+                .findFirst()
+                .orElse("(detached)");
+    }
+
+    public void dispatch(OrderEvent event) {
+        List<BoundedObserverPublisher<OrderEvent>> targets = routing.targetsFor(event.type());
+        for (int i = 0; i < targets.size(); i++) {
+            targets.get(i).submit(event);
+        }
+    }
+
+    public void dispatchAll(List<OrderEvent> events) {
+        for (BoundedObserverPublisher<OrderEvent> publisher : routing.allTargets()) {
+            for (OrderEvent event : routing.filter(publisher, events)) {
+                publisher.submit(event);
+            }
+        }
+    }
+
+    // Pending events for one listener, or -1 if it is not attached
+    public int getLag(OrderEventListener listener) {
+        BoundedObserverPublisher<OrderEvent> publisher = publishers.get(listener);
+        return publisher == null ? -1 : publisher.getLag();
+    }
+
+    public long getDroppedCount(OrderEventListener listener) {
+        BoundedObserverPublisher<OrderEvent> publisher = publishers.get(listener);
+        return publisher == null ? 0 : publisher.getDroppedCount();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    // Stops accepting events and waits for buffered ones to be delivered
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        publishers.values().forEach(BoundedObserverPublisher::close);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (publishers.values().stream().anyMatch(p -> p.getLag() > 0)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        publishers.clear();
+        executor.shutdown();
+        executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+}
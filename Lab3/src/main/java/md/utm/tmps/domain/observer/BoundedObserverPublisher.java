@@ -0,0 +1,239 @@
+package md.utm.tmps.domain.observer;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Single-subscriber Flow.Publisher with a bounded buffer
+// Items are delivered on the given executor only while the subscriber has demand,
+// and the overflow policy decides what submit() does when the buffer is full.
+// submit() never throws: it runs after the order change was applied and logged, so an
+// event that can't be buffered is dropped and counted instead of failing the caller.
+// Under FAIL the producer reserves a slot before applying its change (tryReserve) and is
+// refused up front when there is none; a reserved event is then always buffered.
+// onError is terminal - the subscription is cancelled and nothing more is delivered.
+public class BoundedObserverPublisher<T> implements Flow.Publisher<T> {
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Executor executor;
+    private final ArrayDeque<T> buffer;
+    private final ReentrantLock lock;
+    private final Condition notFull;
+    private final AtomicLong demand;
+    private final AtomicBoolean draining;
+    private final AtomicLong dropped;
+    // FAIL only: slots promised to events whose change is being applied (guarded by lock)
+    private int reserved;
+    private volatile Flow.Subscriber<? super T> subscriber;
+    private volatile boolean closed;
+    private volatile boolean completed;
+    private volatile boolean failed;
+
+    public BoundedObserverPublisher(int capacity, OverflowPolicy overflowPolicy, Executor executor) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.executor = executor;
+        this.buffer = new ArrayDeque<>(capacity);
+        this.lock = new ReentrantLock();
+        this.notFull = lock.newCondition();
+        this.demand = new AtomicLong();
+        this.draining = new AtomicBoolean();
+        this.dropped = new AtomicLong();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (this.subscriber != null) {
+            subscriber.onError(new IllegalStateException("Publisher already has a subscriber"));
+            return;
+        }
+        this.subscriber = subscriber;
+        subscriber.onSubscribe(new BufferSubscription());
+    }
+
+    public void submit(T item) {
+        if (closed) {
+            dropped.incrementAndGet();
+            return;
+        }
+        lock.lock();
+        try {
+            if (reserved > 0) {
+                // A promised slot: buffer.size() + reserved never exceeds capacity
+                reserved--;
+            } else {
+                while (buffer.size() >= capacity) {
+                    switch (overflowPolicy) {
+                        case BLOCK -> notFull.awaitUninterruptibly();
+                        case DROP_OLDEST -> {
+                            buffer.pollFirst();
+                            dropped.incrementAndGet();
+                        }
+                        case FAIL -> {
+                            // Only reached by events that skipped reservation
+                            dropped.incrementAndGet();
+                            return;
+                        }
+                    }
+                    if (closed) {
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                }
+            }
+            buffer.addLast(item);
+        } finally {
+            lock.unlock();
+        }
+        scheduleDrain();
+    }
+
+    // Promises room for count more events; false when the buffer (with earlier promises) is full.
+    // A closed publisher drops everything anyway, so it never refuses
+    public boolean tryReserve(int count) {
+        if (closed) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (buffer.size() + reserved + count > capacity) {
+                return false;
+            }
+            reserved += count;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Gives back promised slots whose events will never be submitted
+    public void release(int count) {
+        lock.lock();
+        try {
+            reserved = Math.max(0, reserved - count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Number of events enqueued but not yet handed to the subscriber
+    public int getLag() {
+        lock.lock();
+        try {
+            return buffer.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public void close() {
+        closed = true;
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (subscriber != null && !failed && draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    // Only one drain runs at a time, which keeps delivery in submission order
+    private void drain() {
+        Flow.Subscriber<? super T> target = subscriber;
+        try {
+            while (demand.get() > 0) {
+                T item = poll();
+                if (item == null) {
+                    break;
+                }
+                demand.decrementAndGet();
+                target.onNext(item);
+            }
+            if (closed && !completed && getLag() == 0) {
+                completed = true;
+                target.onComplete();
+                return;
+            }
+        } catch (RuntimeException e) {
+            fail(e);
+            return;
+        } finally {
+            draining.set(false);
+        }
+        // Re-check: an item or demand may have arrived after the loop gave up
+        if (demand.get() > 0 && getLag() > 0) {
+            scheduleDrain();
+        }
+    }
+
+    // Terminal: stop delivering, discard what is buffered and release blocked producers
+    private void fail(Throwable error) {
+        if (failed) {
+            return;
+        }
+        failed = true;
+        closed = true;
+        demand.set(0);
+        lock.lock();
+        try {
+            dropped.addAndGet(buffer.size());
+            buffer.clear();
+            reserved = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        subscriber.onError(error);
+    }
+
+    private T poll() {
+        lock.lock();
+        try {
+            T item = buffer.pollFirst();
+            if (item != null) {
+                notFull.signal();
+            }
+            return item;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private class BufferSubscription implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Demand must be positive: " + n));
+                return;
+            }
+            demand.accumulateAndGet(n, (current, added) -> {
+                long sum = current + added;
+                return sum < 0 ? Long.MAX_VALUE : sum;
+            });
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            closed = true;
+            demand.set(0);
+            lock.lock();
+            try {
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -1,42 +1,101 @@
 package md.utm.tmps.domain.observer;
 
-import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.notification.ConsoleNotificationSender;
+import md.utm.tmps.domain.notification.Notification;
+import md.utm.tmps.domain.notification.NotificationOutbox;
+import md.utm.tmps.domain.notification.NotificationSender;
+import md.utm.tmps.domain.notification.NotificationTemplates;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 // Observer Pattern
 // Concrete Observer - handles customer notifications
-public class CustomerNotificationObserver implements OrderObserver {
+// Messages come from templates compiled once at construction. With a coalescing window,
+// updates go through a NotificationOutbox so one order's quick succession of status
+// changes reaches the customer as a single message; without one they are sent at once.
+// Closing (OrderManager does it on removeObserver) flushes the outbox and stops its thread;
+// anything arriving after that is sent at once.
+public class CustomerNotificationObserver implements OrderEventListener, Closeable {
     private final String observerName = "Customer Notification Service";
+    private final NotificationTemplates templates;
+    private final NotificationSender sender;
+    private final NotificationOutbox outbox;
+    private volatile boolean closed;
+
+    public CustomerNotificationObserver() {
+        this(Duration.ZERO, new ConsoleNotificationSender());
+    }
+
+    public CustomerNotificationObserver(Duration coalescingWindow, NotificationSender sender) {
+        this.templates = NotificationTemplates.defaults();
+        this.sender = sender;
+        this.outbox = coalescingWindow.isZero() || coalescingWindow.isNegative()
+                ? null
+                : new NotificationOutbox(coalescingWindow, templates, sender);
+    }
 
     @Override
-    public void update(Order order, String eventType) {
-        String message = switch (eventType) {
-            case "ORDER_CREATED" -> String.format(
-                    "📧 Email to %s: Your order %s has been created! Total: $%.2f",
-                    order.getCustomerEmail(), order.getOrderId(), order.getFinalPrice());
-            case "ORDER_CONFIRMED" -> String.format(
-                    "📧 Email to %s: Order %s confirmed! We're preparing your %s.",
-                    order.getCustomerEmail(), order.getOrderId(), order.getComputer().getName());
-            case "ORDER_PROCESSING" -> String.format(
-                    "📧 Email to %s: Order %s is being assembled!",
-                    order.getCustomerEmail(), order.getOrderId());
-            case "ORDER_SHIPPED" -> String.format(
-                    "📧 Email to %s: Order %s has been shipped! Track your delivery.",
-                    order.getCustomerEmail(), order.getOrderId());
-            case "ORDER_DELIVERED" -> String.format(
-                    "📧 Email to %s: Order %s delivered! Enjoy your new %s!",
-                    order.getCustomerEmail(), order.getOrderId(), order.getComputer().getName());
-            case "ORDER_CANCELLED" -> String.format(
-                    "📧 Email to %s: Order %s has been cancelled. Refund initiated.",
-                    order.getCustomerEmail(), order.getOrderId());
-            default -> String.format(
-                    "📧 Email to %s: Order %s status update.",
-                    order.getCustomerEmail(), order.getOrderId());
-        };
-        System.out.println("   " + message);
+    public void onEvent(OrderEvent event) {
+        if (isCoalescing()) {
+            outbox.offer(event.orderId(), event.customerEmail(), event.computerName(),
+                    toCents(event.finalPrice()), event.status());
+        } else {
+            sender.send(render(event));
+        }
+    }
+
+    // Customers must not hear about orders again when state is rebuilt from a journal
+    @Override
+    public boolean hasExternalEffects() {
+        return true;
+    }
+
+    // Immediate mode sends the whole batch to the sender in one call
+    @Override
+    public void onEvents(List<OrderEvent> events) {
+        if (isCoalescing()) {
+            events.forEach(this::onEvent);
+            return;
+        }
+        List<Notification> batch = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            batch.add(render(event));
+        }
+        sender.send(batch);
+    }
+
+    // Sends anything the outbox is still holding
+    public void flush() {
+        if (outbox != null) {
+            outbox.flush();
+        }
+    }
+
+    public boolean isCoalescing() {
+        return outbox != null && !closed;
+    }
+
+    @Override
+    public void close() {
+        if (outbox != null && !closed) {
+            closed = true;
+            outbox.close();
+        }
+    }
+
+    private Notification render(OrderEvent event) {
+        return templates.render(event.customerEmail(), event.orderId(), event.computerName(),
+                toCents(event.finalPrice()), event.status());
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
     }
 
     @Override
     public String getObserverName() {
         return observerName;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,5 @@
+package md.utm.tmps.domain.observer;
+
+// An event an observer could not process, kept for inspection or redelivery
+public record DeadLetter(String observerName, OrderEvent event, String error, int attempts, long failedAt) {
+}
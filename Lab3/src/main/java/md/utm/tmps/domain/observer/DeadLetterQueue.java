@@ -0,0 +1,60 @@
+package md.utm.tmps.domain.observer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded store of failed observer deliveries; the oldest entries go first when full
+public class DeadLetterQueue {
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final int capacity;
+    private final ConcurrentLinkedDeque<DeadLetter> letters;
+    private final AtomicInteger size;
+    private final LongAdder discarded;
+
+    public DeadLetterQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DeadLetterQueue(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.letters = new ConcurrentLinkedDeque<>();
+        this.size = new AtomicInteger();
+        this.discarded = new LongAdder();
+    }
+
+    public void add(DeadLetter letter) {
+        letters.addLast(letter);
+        if (size.incrementAndGet() > capacity && letters.pollFirst() != null) {
+            size.decrementAndGet();
+            discarded.increment();
+        }
+    }
+
+    // Removes and returns everything queued so far, oldest first
+    public List<DeadLetter> drain() {
+        List<DeadLetter> drained = new ArrayList<>();
+        DeadLetter letter;
+        while ((letter = letters.pollFirst()) != null) {
+            size.decrementAndGet();
+            drained.add(letter);
+        }
+        return drained;
+    }
+
+    public List<DeadLetter> peekAll() {
+        return List.copyOf(letters);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    // Letters pushed out because the queue was full
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+}
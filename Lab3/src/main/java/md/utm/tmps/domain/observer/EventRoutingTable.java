@@ -0,0 +1,86 @@
+package md.utm.tmps.domain.observer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Per-event-type routing table: for every OrderEventType, the targets subscribed to it
+// Rebuilt (copy-on-write) on subscribe/unsubscribe, so publishing is one array lookup
+// and a target that ignores a type is never even visited for it.
+final class EventRoutingTable<T> {
+    private static final OrderEventType[] TYPES = OrderEventType.values();
+
+    private final Map<T, Set<OrderEventType>> subscriptions;
+    private volatile List<List<T>> routes;
+    private volatile List<T> targets;
+    private volatile Map<T, Set<OrderEventType>> subscriptionView;
+
+    EventRoutingTable() {
+        this.subscriptions = new LinkedHashMap<>();
+        rebuild();
+    }
+
+    synchronized void subscribe(T target, Set<OrderEventType> eventTypes) {
+        subscriptions.put(target, eventTypes.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(eventTypes)));
+        rebuild();
+    }
+
+    synchronized void unsubscribe(T target) {
+        if (subscriptions.remove(target) != null) {
+            rebuild();
+        }
+    }
+
+    List<T> targetsFor(OrderEventType type) {
+        return routes.get(type.ordinal());
+    }
+
+    List<T> allTargets() {
+        return targets;
+    }
+
+    Set<OrderEventType> subscriptionOf(T target) {
+        return subscriptionView.getOrDefault(target, Collections.emptySet());
+    }
+
+    // The part of a mixed batch the target subscribed to - the batch itself when it takes everything
+    List<OrderEvent> filter(T target, List<OrderEvent> events) {
+        Set<OrderEventType> eventTypes = subscriptionOf(target);
+        if (eventTypes.size() == TYPES.length) {
+            return events;
+        }
+        List<OrderEvent> routed = new ArrayList<>();
+        for (OrderEvent event : events) {
+            if (eventTypes.contains(event.type())) {
+                routed.add(event);
+            }
+        }
+        return routed;
+    }
+
+    int size() {
+        return targets.size();
+    }
+
+    private void rebuild() {
+        List<List<T>> byType = new ArrayList<>(TYPES.length);
+        for (OrderEventType type : TYPES) {
+            List<T> routed = new ArrayList<>();
+            subscriptions.forEach((target, eventTypes) -> {
+                if (eventTypes.contains(type)) {
+                    routed.add(target);
+                }
+            });
+            byType.add(List.copyOf(routed));
+        }
+        this.routes = List.copyOf(byType);
+        this.targets = List.copyOf(subscriptions.keySet());
+        this.subscriptionView = Map.copyOf(subscriptions);
+    }
+}
@@ -0,0 +1,110 @@
+package md.utm.tmps.domain.observer;
+
+import java.util.List;
+import java.util.Set;
+
+// Decorator OrderManager puts around every registered listener
+// Times each call, counts failures, retries single events per the RetryPolicy and dead-letters events
+// that still fail, so one broken observer never stops the others from being notified.
+final class InstrumentedListener implements OrderEventListener {
+    private final OrderEventListener delegate;
+    private final ObserverMetrics metrics;
+    private final DeadLetterQueue deadLetters;
+    private volatile RetryPolicy retryPolicy;
+
+    InstrumentedListener(OrderEventListener delegate, DeadLetterQueue deadLetters, RetryPolicy retryPolicy) {
+        this.delegate = delegate;
+        this.metrics = new ObserverMetrics(delegate.getObserverName());
+        this.deadLetters = deadLetters;
+        this.retryPolicy = retryPolicy;
+    }
+
+    @Override
+    public void onEvent(OrderEvent event) {
+        RetryPolicy policy = retryPolicy;
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                delegate.onEvent(event);
+                metrics.recordInvocation(System.nanoTime() - start);
+                return;
+            } catch (RuntimeException e) {
+                metrics.recordInvocation(System.nanoTime() - start);
+                metrics.recordError();
+                if (attempt >= policy.maxAttempts()) {
+                    deadLetter(event, e, attempt);
+                    return;
+                }
+                metrics.recordRetry();
+                backOff(policy);
+            }
+        }
+    }
+
+    // A batch is delivered once and never retried: a listener may have applied part of it
+    // before throwing, and handing those events over again would apply them twice. The whole
+    // batch is dead-lettered instead, for an operator to inspect and replay.
+    @Override
+    public void onEvents(List<OrderEvent> events) {
+        long start = System.nanoTime();
+        try {
+            delegate.onEvents(events);
+            metrics.recordInvocation(System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            metrics.recordInvocation(System.nanoTime() - start);
+            metrics.recordError();
+            long failedAt = System.currentTimeMillis();
+            for (OrderEvent event : events) {
+                metrics.recordDeadLetter();
+                deadLetters.add(new DeadLetter(getObserverName(), event, String.valueOf(e), 1, failedAt));
+            }
+            System.out.printf("   ❌ Observer %s failed on a batch of %d events, all dead-lettered: %s\n",
+                    getObserverName(), events.size(), e);
+        }
+    }
+
+    @Override
+    public Set<OrderEventType> subscribedEvents() {
+        return delegate.subscribedEvents();
+    }
+
+    @Override
+    public boolean hasExternalEffects() {
+        return delegate.hasExternalEffects();
+    }
+
+    @Override
+    public String getObserverName() {
+        return delegate.getObserverName();
+    }
+
+    OrderEventListener getDelegate() {
+        return delegate;
+    }
+
+    ObserverMetrics getMetrics() {
+        return metrics;
+    }
+
+    void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    private void deadLetter(OrderEvent event, RuntimeException error, int attempts) {
+        metrics.recordDeadLetter();
+        deadLetters.add(new DeadLetter(getObserverName(), event, String.valueOf(error), attempts,
+                System.currentTimeMillis()));
+        System.out.printf("   ❌ Observer %s failed on %s for %s after %d attempt(s): %s\n",
+                getObserverName(), event.type(), event.orderId(), attempts, error);
+    }
+
+    private static void backOff(RetryPolicy policy) {
+        if (policy.backoffMillis() > 0) {
+            try {
+                Thread.sleep(policy.backoffMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
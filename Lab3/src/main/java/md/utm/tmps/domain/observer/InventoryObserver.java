@@ -1,70 +1,210 @@
 package md.utm.tmps.domain.observer;
 
-import md.utm.tmps.domain.models.Order;
-import java.util.HashMap;
+import md.utm.tmps.domain.inventory.RestockForecaster;
+import md.utm.tmps.domain.inventory.RestockSignal;
+import md.utm.tmps.domain.inventory.StockLevel;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 // Observer Pattern
 // Concrete Observer - handles inventory updates based on order events
-public class InventoryObserver implements OrderObserver {
+// Each SKU has its own atomic stock counter and demand forecast; nothing is locked globally
+// Orders holding a unit are tracked by id, so a cancellation only restores what was reserved
+public class InventoryObserver implements OrderEventListener {
+    public static final Duration DEFAULT_HORIZON = Duration.ofDays(7);
+    public static final Duration DEFAULT_SMOOTHING = Duration.ofDays(1);
+
     private final String observerName = "Inventory Management System";
-    private final Map<String, Integer> inventory;
+    private final Map<String, StockLevel> inventory;
+    private final Set<String> reservedOrders = ConcurrentHashMap.newKeySet();
+    private final RestockForecaster forecaster;
 
     public InventoryObserver() {
-        this.inventory = new HashMap<>();
+        this(DEFAULT_HORIZON, DEFAULT_SMOOTHING);
+    }
+
+    // horizon: how far ahead a projected stock-out raises a signal
+    // smoothing: time constant of the demand forecast
+    public InventoryObserver(Duration horizon, Duration smoothing) {
+        this.inventory = new ConcurrentHashMap<>();
+        this.forecaster = new RestockForecaster(horizon, smoothing);
+        forecaster.addListener(this::reportRestockSignal);
         initializeInventory();
     }
 
     private void initializeInventory() {
-        inventory.put("Gaming Beast", 10);
-        inventory.put("Professional Workstation", 5);
-        inventory.put("Budget Gaming PC", 15);
-        inventory.put("Office PC", 20);
+        restock("Gaming Beast", 10);
+        restock("Professional Workstation", 5);
+        restock("Budget Gaming PC", 15);
+        restock("Office PC", 20);
     }
 
+    // Stock only moves on confirmation and cancellation; shipping is logged. Shipping and
+    // delivery both end an order's reservation, so a missed SHIPPED event cannot pin it forever
     @Override
-    public void update(Order order, String eventType) {
-        String computerName = order.getComputer().getName();
-
-        switch (eventType) {
-            case "ORDER_CONFIRMED" -> {
-                int current = inventory.getOrDefault(computerName, 0);
-                if (current > 0) {
-                    inventory.put(computerName, current - 1);
+    public Set<OrderEventType> subscribedEvents() {
+        return EnumSet.of(OrderEventType.ORDER_CONFIRMED, OrderEventType.ORDER_CANCELLED,
+                OrderEventType.ORDER_SHIPPED, OrderEventType.ORDER_DELIVERED);
+    }
+
+    @Override
+    public void onEvent(OrderEvent event) {
+        String computerName = event.computerName();
+
+        switch (event.type()) {
+            case ORDER_CONFIRMED -> {
+                StockLevel level = stockLevel(computerName);
+                if (reserve(event, level)) {
                     System.out.printf("   📦 Inventory: Reserved 1x %s. Stock remaining: %d\n",
-                            computerName, current - 1);
+                            computerName, level.getAvailable());
                 } else {
                     System.out.printf("   ⚠️  Inventory: WARNING - %s out of stock!\n", computerName);
                 }
+                // Demand counts even when it could not be served
+                level.recordDemand(event.timestamp(), 1);
+                forecaster.evaluate(level, event.timestamp());
             }
-            case "ORDER_CANCELLED" -> {
-                int current = inventory.getOrDefault(computerName, 0);
-                inventory.put(computerName, current + 1);
+            case ORDER_CANCELLED -> {
+                if (!reservedOrders.remove(event.orderId())) {
+                    System.out.printf("   📦 Inventory: Nothing reserved for order %s\n", event.orderId());
+                    return;
+                }
+                StockLevel level = stockLevel(computerName);
+                int stock = level.release(1);
                 System.out.printf("   📦 Inventory: Restored 1x %s. Stock now: %d\n",
-                        computerName, current + 1);
+                        computerName, stock);
+                forecaster.evaluate(level, event.timestamp());
             }
-            case "ORDER_SHIPPED" -> {
+            case ORDER_SHIPPED -> {
+                // The unit has left the warehouse; a shipped order can no longer be cancelled
+                reservedOrders.remove(event.orderId());
                 System.out.printf("   📦 Inventory: %s shipped for order %s\n",
-                        computerName, order.getOrderId());
+                        computerName, event.orderId());
             }
+            case ORDER_DELIVERED -> reservedOrders.remove(event.orderId());
             default -> {
                 // No inventory action needed for other events
             }
         }
     }
 
+    // Single pass over a bulk batch in event order (a cancel only restores a unit reserved
+    // before it), tallying per product so each product reports and re-forecasts once
+    @Override
+    public void onEvents(List<OrderEvent> events) {
+        Map<String, int[]> changes = new LinkedHashMap<>();
+        long latest = 0;
+        for (OrderEvent event : events) {
+            latest = Math.max(latest, event.timestamp());
+            switch (event.type()) {
+                case ORDER_CONFIRMED -> {
+                    int[] counts = changes.computeIfAbsent(event.computerName(), k -> new int[3]);
+                    counts[0]++;
+                    if (reserve(event, stockLevel(event.computerName()))) {
+                        counts[1]++;
+                    }
+                }
+                case ORDER_CANCELLED -> {
+                    if (reservedOrders.remove(event.orderId())) {
+                        stockLevel(event.computerName()).release(1);
+                        changes.computeIfAbsent(event.computerName(), k -> new int[3])[2]++;
+                    }
+                }
+                case ORDER_SHIPPED, ORDER_DELIVERED -> reservedOrders.remove(event.orderId());
+                default -> {
+                    // No inventory action needed for other events
+                }
+            }
+        }
+        long now = latest;
+        changes.forEach((computerName, counts) -> {
+            int requested = counts[0];
+            int reserved = counts[1];
+            int restored = counts[2];
+            StockLevel level = stockLevel(computerName);
+            System.out.printf("   📦 Inventory: %s - reserved %d, restored %d. Stock remaining: %d\n",
+                    computerName, reserved, restored, level.getAvailable());
+            if (reserved < requested) {
+                System.out.printf("   ⚠️  Inventory: WARNING - %s out of stock for %d orders!\n",
+                        computerName, requested - reserved);
+            }
+            if (requested > 0) {
+                level.recordDemand(now, requested);
+            }
+            forecaster.evaluate(level, now);
+        });
+    }
+
     @Override
     public String getObserverName() {
         return observerName;
     }
 
+    // Orders currently holding a unit (confirmed, not yet shipped, delivered or cancelled)
+    public int getReservedOrderCount() {
+        return reservedOrders.size();
+    }
+
     public int getStock(String computerName) {
-        return inventory.getOrDefault(computerName, 0);
+        StockLevel level = inventory.get(computerName);
+        return level == null ? 0 : level.getAvailable();
+    }
+
+    // Adds units to a SKU (creating it if needed) and returns the new stock
+    public int restock(String computerName, int units) {
+        StockLevel level = stockLevel(computerName);
+        int stock = level.release(units);
+        forecaster.evaluate(level, System.currentTimeMillis());
+        return stock;
+    }
+
+    public void addRestockListener(Consumer<RestockSignal> listener) {
+        forecaster.addListener(listener);
+    }
+
+    public double getForecastUnitsPerDay(String computerName) {
+        StockLevel level = inventory.get(computerName);
+        return level == null ? 0 : level.getForecast().getUnitsPerDay(System.currentTimeMillis());
+    }
+
+    private boolean reserve(OrderEvent event, StockLevel level) {
+        if (level.tryReserve(1) != 1) {
+            return false;
+        }
+        reservedOrders.add(event.orderId());
+        return true;
+    }
+
+    private StockLevel stockLevel(String computerName) {
+        return inventory.computeIfAbsent(computerName, name -> forecaster.newStockLevel(name, 0));
+    }
+
+    private void reportRestockSignal(RestockSignal signal) {
+        if (signal.isOutOfStock()) {
+            System.out.printf("   🚨 Inventory: RESTOCK %s now - out of stock (demand %.1f/day)\n",
+                    signal.sku(), signal.forecastUnitsPerDay());
+        } else {
+            System.out.printf("   📉 Inventory: LOW STOCK %s - %d left, projected to run out in %.1f days\n",
+                    signal.sku(), signal.available(), signal.projectedStockOut().toMinutes() / 1440.0);
+        }
     }
 
     public void displayInventory() {
+        long now = System.currentTimeMillis();
         System.out.println("\n   Current Inventory:");
-        inventory.forEach((name, count) ->
-                System.out.printf("   - %s: %d units\n", name, count));
+        inventory.forEach((name, level) -> {
+            double perDay = level.getForecast().getUnitsPerDay(now);
+            if (perDay > 0) {
+                System.out.printf("   - %s: %d units (demand %.1f/day)\n", name, level.getAvailable(), perDay);
+            } else {
+                System.out.printf("   - %s: %d units\n", name, level.getAvailable());
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package md.utm.tmps.domain.observer;
+
+import md.utm.tmps.domain.analytics.LogLinearHistogram;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+// Per-observer counters and call latency, registered as an MBean by OrderManager
+// Latency is recorded in nanoseconds into a log-linear histogram and reported in microseconds
+public class ObserverMetrics implements ObserverMetricsMBean {
+    private final String observerName;
+    private final LongAdder invocations;
+    private final LongAdder errors;
+    private final LongAdder retries;
+    private final LongAdder deadLetters;
+    private final LogLinearHistogram latencyNanos;
+    private volatile IntSupplier queueDepth;
+    private volatile LongSupplier droppedEvents;
+
+    public ObserverMetrics(String observerName) {
+        this.observerName = observerName;
+        this.invocations = new LongAdder();
+        this.errors = new LongAdder();
+        this.retries = new LongAdder();
+        this.deadLetters = new LongAdder();
+        this.latencyNanos = new LogLinearHistogram();
+        this.queueDepth = () -> 0;
+        this.droppedEvents = () -> 0;
+    }
+
+    void recordInvocation(long elapsedNanos) {
+        invocations.increment();
+        latencyNanos.record(elapsedNanos);
+    }
+
+    void recordError() { errors.increment(); }
+    void recordRetry() { retries.increment(); }
+    void recordDeadLetter() { deadLetters.increment(); }
+
+    void setQueueDepth(IntSupplier queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    void setDroppedEvents(LongSupplier droppedEvents) {
+        this.droppedEvents = droppedEvents;
+    }
+
+    @Override public String getObserverName() { return observerName; }
+    @Override public long getInvocationCount() { return invocations.sum(); }
+    @Override public long getErrorCount() { return errors.sum(); }
+    @Override public long getRetryCount() { return retries.sum(); }
+    @Override public long getDeadLetterCount() { return deadLetters.sum(); }
+    @Override public double getLatencyP50Micros() { return latencyNanos.valueAtPercentile(50) / 1000.0; }
+    @Override public double getLatencyP99Micros() { return latencyNanos.valueAtPercentile(99) / 1000.0; }
+    @Override public double getLatencyP999Micros() { return latencyNanos.valueAtPercentile(99.9) / 1000.0; }
+    @Override public int getQueueDepth() { return Math.max(0, queueDepth.getAsInt()); }
+    @Override public long getDroppedEventCount() { return droppedEvents.getAsLong(); }
+
+    @Override
+    public void resetStatistics() {
+        invocations.reset();
+        errors.reset();
+        retries.reset();
+        deadLetters.reset();
+        latencyNanos.reset();
+    }
+}
@@ -0,0 +1,17 @@
+package md.utm.tmps.domain.observer;
+
+// JMX view of one registered observer (standard MBean interface)
+public interface ObserverMetricsMBean {
+    String getObserverName();
+    long getInvocationCount();
+    long getErrorCount();
+    long getRetryCount();
+    long getDeadLetterCount();
+    double getLatencyP50Micros();
+    double getLatencyP99Micros();
+    double getLatencyP999Micros();
+    int getQueueDepth();
+    // Events the current async dispatcher dropped for this observer (buffer full or closed)
+    long getDroppedEventCount();
+    void resetStatistics();
+}
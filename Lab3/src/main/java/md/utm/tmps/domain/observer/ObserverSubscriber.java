@@ -0,0 +1,47 @@
+package md.utm.tmps.domain.observer;
+
+import java.util.concurrent.Flow;
+
+// Flow.Subscriber that feeds queued order events into an OrderEventListener
+// Demand is requested in batches and replenished once half of a batch is consumed
+public class ObserverSubscriber implements Flow.Subscriber<OrderEvent> {
+    private final OrderEventListener listener;
+    private final int batchSize;
+    private Flow.Subscription subscription;
+    private int consumedSinceRequest;
+
+    public ObserverSubscriber(OrderEventListener listener, int batchSize) {
+        this.listener = listener;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(batchSize);
+    }
+
+    @Override
+    public void onNext(OrderEvent event) {
+        listener.onEvent(event);
+        if (++consumedSinceRequest >= (batchSize + 1) / 2) {
+            subscription.request(consumedSinceRequest);
+            consumedSinceRequest = 0;
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        System.out.printf("   ⚠️  Async delivery to %s failed: %s\n",
+                listener.getObserverName(), throwable.getMessage());
+    }
+
+    @Override
+    public void onComplete() {
+        // Nothing to release - the wrapped listener outlives its subscription
+    }
+
+    public OrderEventListener getListener() {
+        return listener;
+    }
+}
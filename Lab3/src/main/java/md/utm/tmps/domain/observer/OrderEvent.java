@@ -0,0 +1,39 @@
+package md.utm.tmps.domain.observer;
+
+import md.utm.tmps.domain.models.Order;
+
+// Immutable snapshot of an order taken at the moment a lifecycle event happened
+// Safe to queue, batch or persist - later changes to the live Order never leak into it
+public record OrderEvent(
+        long sequence,
+        OrderEventType type,
+        long timestamp,
+        String orderId,
+        String customerName,
+        String customerEmail,
+        String computerName,
+        Order.OrderStatus status,
+        double finalPrice,
+        String discountApplied,
+        String pricingStrategy
+) {
+    public static OrderEvent of(long sequence, OrderEventType type, Order order) {
+        return of(sequence, type, order, System.currentTimeMillis());
+    }
+
+    public static OrderEvent of(long sequence, OrderEventType type, Order order, long timestamp) {
+        return new OrderEvent(
+                sequence,
+                type,
+                timestamp,
+                order.getOrderId(),
+                order.getCustomerName(),
+                order.getCustomerEmail(),
+                order.getComputer().getName(),
+                order.getStatus(),
+                order.getFinalPrice(),
+                order.getDiscountApplied(),
+                order.getPricingStrategy()
+        );
+    }
+}
@@ -0,0 +1,37 @@
+package md.utm.tmps.domain.observer;
+
+import md.utm.tmps.domain.models.Order;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// Observer Pattern
+// Typed observer interface - receives immutable OrderEvent snapshots instead of the live order
+// Extends OrderObserver so listeners can still be registered through OrderSubject
+public interface OrderEventListener extends OrderObserver {
+    void onEvent(OrderEvent event);
+
+    // Event types this listener wants; OrderManager only routes these to it
+    default Set<OrderEventType> subscribedEvents() {
+        return EnumSet.allOf(OrderEventType.class);
+    }
+
+    // True when handling an event reaches outside the process (e.g. emails to customers);
+    // such listeners are skipped while OrderManager replays a command journal
+    default boolean hasExternalEffects() {
+        return false;
+    }
+
+    // Batched delivery used by bulk operations; override to consume the batch in one pass
+    default void onEvents(List<OrderEvent> events) {
+        for (OrderEvent event : events) {
+            onEvent(event);
+        }
+    }
+
+    // Legacy entry point: snapshot the order and route it through onEvent (unsequenced)
+    @Override
+    default void update(Order order, String eventType) {
+        onEvent(OrderEvent.of(0, OrderEventType.valueOf(eventType), order));
+    }
+}
@@ -0,0 +1,201 @@
+package md.utm.tmps.domain.observer;
+
+import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.persistence.BinaryCodec;
+import md.utm.tmps.domain.persistence.ConsumerOffsetStore;
+import md.utm.tmps.domain.persistence.DurabilityMode;
+import md.utm.tmps.domain.persistence.SegmentedLog;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Durable stream of every order lifecycle event, with replayable consumer offsets
+// Events are appended to a segmented log; an event's offset is its log position, so offsets
+// increase monotonically. A consumer (typically an observer) keeps a committed offset and
+// can catch up from it after a restart, or replay from 0 to rebuild its state from scratch.
+public class OrderEventLog implements Closeable {
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final int REPLAY_BATCH_SIZE = 1024;
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 4096;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10;
+
+    private static final OrderEventType[] TYPES = OrderEventType.values();
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    private final SegmentedLog log;
+    private final ConsumerOffsetStore offsets;
+
+    @FunctionalInterface
+    public interface EventHandler {
+        void handle(long offset, OrderEvent event);
+    }
+
+    public OrderEventLog(SegmentedLog log, ConsumerOffsetStore offsets) {
+        this.log = log;
+        this.offsets = offsets;
+    }
+
+    // Event segments live in the directory itself, consumer offsets in its "offsets" subfolder
+    public static OrderEventLog open(Path directory, DurabilityMode durabilityMode) throws IOException {
+        return open(directory, durabilityMode, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    // flushIntervalMillis: how often the TIMER mode forces appended events to disk
+    public static OrderEventLog open(Path directory, DurabilityMode durabilityMode,
+                                     long flushIntervalMillis) throws IOException {
+        return new OrderEventLog(
+                new SegmentedLog(directory, "events", DEFAULT_SEGMENT_SIZE, durabilityMode, flushIntervalMillis),
+                new ConsumerOffsetStore(directory.resolve("offsets")));
+    }
+
+    public long append(OrderEvent event) {
+        return log.append(encode(event));
+    }
+
+    // Returns once every event appended so far is durable (group commit in PER_BATCH mode,
+    // a no-op in the other modes)
+    public void sync() {
+        log.sync();
+    }
+
+    // Offset the next appended event will get, i.e. the end of the stream
+    public long getEndOffset() {
+        return log.getWrittenLsn();
+    }
+
+    // Visits every event from the given offset; returns the offset to continue from
+    public long replay(long fromOffset, EventHandler handler) {
+        long[] next = {fromOffset};
+        try {
+            log.read(fromOffset, (lsn, payload) -> {
+                next[0] = SegmentedLog.nextLsn(lsn, payload);
+                handler.handle(lsn, decode(payload));
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read order event log", e);
+        }
+        return next[0];
+    }
+
+    // Delivers everything after the consumer's committed offset to the listener in batches
+    // (only the event types it subscribes to) and commits every checkpointInterval events.
+    // Returns the number of events delivered.
+    public long catchUp(String consumer, OrderEventListener listener, int checkpointInterval) {
+        Set<OrderEventType> subscribed = listener.subscribedEvents();
+        List<OrderEvent> batch = new ArrayList<>(REPLAY_BATCH_SIZE);
+        long[] delivered = {0};
+        long[] sinceCheckpoint = {0};
+        long[] position = {offsets.getCommitted(consumer)};
+        try {
+            log.read(position[0], (lsn, payload) -> {
+                position[0] = SegmentedLog.nextLsn(lsn, payload);
+                OrderEvent event = decode(payload);
+                if (subscribed.contains(event.type())) {
+                    batch.add(event);
+                }
+                if (batch.size() == REPLAY_BATCH_SIZE) {
+                    delivered[0] += deliver(listener, batch);
+                }
+                if (++sinceCheckpoint[0] >= checkpointInterval) {
+                    delivered[0] += deliver(listener, batch);
+                    offsets.commit(consumer, position[0]);
+                    sinceCheckpoint[0] = 0;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read order event log", e);
+        }
+        delivered[0] += deliver(listener, batch);
+        offsets.commit(consumer, position[0]);
+        return delivered[0];
+    }
+
+    public long catchUp(String consumer, OrderEventListener listener) {
+        return catchUp(consumer, listener, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public long getCommittedOffset(String consumer) {
+        return offsets.getCommitted(consumer);
+    }
+
+    public void commit(String consumer, long offset) {
+        offsets.commit(consumer, offset);
+    }
+
+    // Forgets the consumer's position so its next catch-up replays the whole stream
+    public void resetConsumer(String consumer) {
+        offsets.commit(consumer, 0);
+    }
+
+    // Drops whole segments that every consumer has already read past
+    public int truncateBefore(long offset) throws IOException {
+        return log.deleteSegmentsBefore(offset);
+    }
+
+    public SegmentedLog getLog() {
+        return log;
+    }
+
+    @Override
+    public void close() {
+        offsets.close();
+        log.close();
+    }
+
+    private static int deliver(OrderEventListener listener, List<OrderEvent> batch) {
+        int size = batch.size();
+        if (size > 0) {
+            listener.onEvents(List.copyOf(batch));
+            batch.clear();
+        }
+        return size;
+    }
+
+    private static byte[] encode(OrderEvent event) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(160);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(event.sequence());
+            out.writeByte(event.type().ordinal());
+            out.writeLong(event.timestamp());
+            BinaryCodec.writeString(out, event.orderId());
+            BinaryCodec.writeString(out, event.customerName());
+            BinaryCodec.writeString(out, event.customerEmail());
+            BinaryCodec.writeString(out, event.computerName());
+            out.writeByte(event.status().ordinal());
+            out.writeDouble(event.finalPrice());
+            BinaryCodec.writeString(out, event.discountApplied());
+            BinaryCodec.writeString(out, event.pricingStrategy());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static OrderEvent decode(ByteBuffer payload) throws IOException {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        return new OrderEvent(
+                in.readLong(),
+                TYPES[in.readByte()],
+                in.readLong(),
+                BinaryCodec.readString(in),
+                BinaryCodec.readString(in),
+                BinaryCodec.readString(in),
+                BinaryCodec.readString(in),
+                STATUSES[in.readByte()],
+                in.readDouble(),
+                BinaryCodec.readString(in),
+                BinaryCodec.readString(in));
+    }
+}
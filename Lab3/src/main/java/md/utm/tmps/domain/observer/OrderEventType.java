@@ -0,0 +1,37 @@
+package md.utm.tmps.domain.observer;
+
+import md.utm.tmps.domain.models.Order;
+
+// Kinds of order lifecycle events
+// Constant names match the legacy String event types passed to OrderObserver.update
+public enum OrderEventType {
+    ORDER_CREATED(Order.OrderStatus.CREATED),
+    ORDER_CONFIRMED(Order.OrderStatus.CONFIRMED),
+    ORDER_PROCESSING(Order.OrderStatus.PROCESSING),
+    ORDER_SHIPPED(Order.OrderStatus.SHIPPED),
+    ORDER_DELIVERED(Order.OrderStatus.DELIVERED),
+    ORDER_CANCELLED(Order.OrderStatus.CANCELLED);
+
+    private static final OrderEventType[] BY_STATUS = new OrderEventType[Order.OrderStatus.values().length];
+
+    static {
+        for (OrderEventType type : values()) {
+            BY_STATUS[type.status.ordinal()] = type;
+        }
+    }
+
+    private final Order.OrderStatus status;
+
+    OrderEventType(Order.OrderStatus status) {
+        this.status = status;
+    }
+
+    // Status an order has after this event
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public static OrderEventType forStatus(Order.OrderStatus status) {
+        return BY_STATUS[status.ordinal()];
+    }
+}
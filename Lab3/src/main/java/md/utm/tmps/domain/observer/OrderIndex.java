@@ -0,0 +1,121 @@
+package md.utm.tmps.domain.observer;
+
+import md.utm.tmps.domain.models.Order;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+// Secondary indexes over the order store, maintained by OrderManager
+// Each index maps a key to the sorted set of numeric order ids, so a cursor (the last id seen)
+// resumes a scan without copying the whole order set. Ids are only rendered to their
+// "ORD-..." form for the orders a page actually returns. Updates for one order are made
+// under that order's stripe lock; a moved id is added to its new status before being
+// removed from the old one, so a concurrent reader never loses it.
+class OrderIndex {
+    private final NavigableSet<Long> allIds;
+    private final Map<Order.OrderStatus, NavigableSet<Long>> byStatus;
+    private final Map<Order.OrderStatus, LongAdder> statusCounts;
+    private final Map<String, NavigableSet<Long>> byCustomerEmail;
+    private final Map<String, NavigableSet<Long>> byCustomerName;
+    private final Map<String, NavigableSet<Long>> byComputerName;
+
+    OrderIndex() {
+        this.allIds = new ConcurrentSkipListSet<>();
+        this.byStatus = new EnumMap<>(Order.OrderStatus.class);
+        this.statusCounts = new EnumMap<>(Order.OrderStatus.class);
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            byStatus.put(status, new ConcurrentSkipListSet<>());
+            statusCounts.put(status, new LongAdder());
+        }
+        this.byCustomerEmail = new ConcurrentHashMap<>();
+        this.byCustomerName = new ConcurrentHashMap<>();
+        this.byComputerName = new ConcurrentHashMap<>();
+    }
+
+    void add(Order order) {
+        long orderId = order.getId();
+        if (!allIds.add(orderId)) {
+            return;
+        }
+        byStatus.get(order.getStatus()).add(orderId);
+        statusCounts.get(order.getStatus()).increment();
+        addTo(byCustomerEmail, order.getCustomerEmail(), orderId);
+        addTo(byCustomerName, order.getCustomerName(), orderId);
+        addTo(byComputerName, order.getComputer().getName(), orderId);
+    }
+
+    void statusChanged(long orderId, Order.OrderStatus from, Order.OrderStatus to) {
+        if (from == to) {
+            return;
+        }
+        byStatus.get(to).add(orderId);
+        statusCounts.get(to).increment();
+        byStatus.get(from).remove(orderId);
+        statusCounts.get(from).decrement();
+    }
+
+    void rebuild(Iterable<Order> orders) {
+        for (Order order : orders) {
+            add(order);
+        }
+    }
+
+    long countByStatus(Order.OrderStatus status) {
+        return statusCounts.get(status).sum();
+    }
+
+    NavigableSet<Long> allIds() {
+        return allIds;
+    }
+
+    NavigableSet<Long> idsByStatus(Order.OrderStatus status) {
+        return byStatus.get(status);
+    }
+
+    NavigableSet<Long> idsByCustomerEmail(String email) {
+        return byCustomerEmail.getOrDefault(email, Collections.emptyNavigableSet());
+    }
+
+    NavigableSet<Long> idsByCustomerName(String name) {
+        return byCustomerName.getOrDefault(name, Collections.emptyNavigableSet());
+    }
+
+    NavigableSet<Long> idsByComputerName(String computerName) {
+        return byComputerName.getOrDefault(computerName, Collections.emptyNavigableSet());
+    }
+
+    // Walks the id set after the cursor, resolving and re-checking each order
+    // (the predicate filters out entries whose order moved on after being indexed)
+    static OrderPage page(NavigableSet<Long> ids, String cursor, int limit,
+                          LongFunction<Order> resolver, Predicate<Order> stillMatches) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + limit);
+        }
+        NavigableSet<Long> remaining = cursor == null ? ids : ids.tailSet(Order.parseId(cursor), false);
+        List<Order> page = new ArrayList<>(Math.min(limit, 64));
+        for (long orderId : remaining) {
+            if (page.size() == limit) {
+                return new OrderPage(page, page.get(page.size() - 1).getOrderId());
+            }
+            Order order = resolver.apply(orderId);
+            if (order != null && stillMatches.test(order)) {
+                page.add(order);
+            }
+        }
+        return new OrderPage(page, null);
+    }
+
+    private static void addTo(Map<String, NavigableSet<Long>> index, String key, long orderId) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(orderId);
+        }
+    }
+}
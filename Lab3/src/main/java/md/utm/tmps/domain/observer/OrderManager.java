@@ -1,112 +1,937 @@
 package md.utm.tmps.domain.observer;
 
+import md.utm.tmps.domain.models.Computer;
 import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.models.OrderRequest;
+import md.utm.tmps.domain.persistence.HeapOrderStore;
+import md.utm.tmps.domain.persistence.OrderSnapshotStore;
+import md.utm.tmps.domain.persistence.OrderStore;
+import md.utm.tmps.domain.persistence.OrderWriteAheadLog;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 // Observer Pattern
 // Concrete Subject - manages orders and notifies observers of changes
+// Thread-safe: orders live in a concurrent OrderStore (a heap map by default, or the compact
+// ColumnarOrderStore) and updates to the same order are serialized through a striped lock,
+// so different orders never contend
+// Optionally durable: with a write-ahead log every change is appended to the log before
+// observers hear about it, and a mutation returns only once its record is durable. The wait
+// happens after the stripe lock is released, so concurrent writers share one force (group
+// commit); observers may therefore see a change shortly before it is on disk.
+// The manager rebuilds itself from the latest snapshot plus the log tail
 public class OrderManager implements OrderSubject {
-    private final List<OrderObserver> observers;
-    private final Map<String, Order> orders;
-    private Order currentOrder;
+    private static final int LOCK_STRIPES = 64;
+    private static final AtomicInteger MANAGER_IDS = new AtomicInteger();
+
+    // Registered observers mapped to the instrumented listener that actually receives events
+    private final Map<OrderObserver, InstrumentedListener> registrations;
+    private final Map<InstrumentedListener, ObjectName> metricsBeans;
+    private final DeadLetterQueue deadLetters;
+    private final int managerId;
+    private volatile RetryPolicy retryPolicy;
+    private final EventRoutingTable<OrderEventListener> routing;
+    private final OrderStore orders; // keyed by the numeric id, rendered only on demand
+    private final Object[] locks;
+    private final AtomicLong eventSequence;
+    private final OrderIndex index;
+    private final OrderWriteAheadLog writeAheadLog;
+    private final OrderSnapshotStore snapshotStore;
+    private ScheduledExecutorService snapshotScheduler;
+    private volatile Order currentOrder;
+    private volatile AsyncObserverDispatcher asyncDispatcher;
+    private volatile RingBufferEventBus ringBus;
+    // Publishers share it; switching the dispatch mode takes it exclusively, so no event is
+    // handed to a dispatcher that is shutting down or delivered ahead of its buffered ones
+    private final ReadWriteLock dispatchModeLock;
+    private volatile OrderEventLog eventLog;
+    // Events held back by deferNotifications() on the current thread
+    private final ThreadLocal<List<OrderEvent>> deferredEvents;
+    private volatile boolean replaying;
+    // While replaying, events carry the time the journaled command originally ran
+    private volatile long replayTimeMillis;
 
     public OrderManager() {
-        this.observers = new ArrayList<>();
-        this.orders = new HashMap<>();
+        this(null, null);
+    }
+
+    public OrderManager(OrderWriteAheadLog writeAheadLog) {
+        this(writeAheadLog, null);
     }
 
+    public OrderManager(OrderWriteAheadLog writeAheadLog, OrderSnapshotStore snapshotStore) {
+        this(writeAheadLog, snapshotStore, new HeapOrderStore());
+    }
+
+    // With a store that hands out copies (ColumnarOrderStore), an Order obtained from the manager
+    // is a snapshot: change orders through the manager, and price a new one before adding it
+    public OrderManager(OrderWriteAheadLog writeAheadLog, OrderSnapshotStore snapshotStore, OrderStore orderStore) {
+        this.registrations = new LinkedHashMap<>();
+        this.metricsBeans = new LinkedHashMap<>();
+        this.deadLetters = new DeadLetterQueue();
+        this.managerId = MANAGER_IDS.incrementAndGet();
+        this.retryPolicy = RetryPolicy.NONE;
+        this.routing = new EventRoutingTable<>();
+        this.orders = orderStore;
+        this.locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.eventSequence = new AtomicLong();
+        this.deferredEvents = new ThreadLocal<>();
+        this.dispatchModeLock = new ReentrantReadWriteLock();
+        this.index = new OrderIndex();
+        this.writeAheadLog = writeAheadLog;
+        this.snapshotStore = snapshotStore;
+        if (writeAheadLog != null) {
+            recover();
+        }
+    }
+
+    // Time-to-ready: load the newest snapshot, then replay only the log after it
+    private void recover() {
+        long start = System.nanoTime();
+        long fromLsn = 0;
+        if (snapshotStore != null) {
+            try {
+                OptionalLong snapshotLsn = snapshotStore.loadLatest(orders);
+                if (snapshotLsn.isPresent()) {
+                    fromLsn = snapshotLsn.getAsLong();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not load order snapshot", e);
+            }
+        }
+        int fromSnapshot = orders.size();
+        long records = writeAheadLog.replay(fromLsn, orders);
+        index.rebuild(orders);
+        System.out.printf("   💾 Recovered %d orders (%d from snapshot, %d log records) in %d ms\n",
+                orders.size(), fromSnapshot, records, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Writes a snapshot without pausing writers and compacts the log behind it.
+    // The log is rolled first: every record before the new segment was applied to the
+    // map before it was logged, so the snapshot covers it; changes racing with the
+    // snapshot land after the roll point and are replayed on top of it.
+    public long takeSnapshot() throws IOException {
+        if (writeAheadLog == null || snapshotStore == null) {
+            throw new IllegalStateException("Snapshots need both a write-ahead log and a snapshot store");
+        }
+        long lsn = writeAheadLog.getLog().roll();
+        long written = snapshotStore.write(lsn, orders);
+        int compacted = writeAheadLog.getLog().deleteSegmentsBefore(
+                snapshotStore.getOldestRetainedLsn().orElse(lsn));
+        System.out.printf("   💾 Snapshot of %d orders at LSN %d, %d log segments compacted\n",
+                written, lsn, compacted);
+        return lsn;
+    }
+
+    public synchronized void startPeriodicSnapshots(long period, TimeUnit unit) {
+        if (snapshotScheduler != null) {
+            return;
+        }
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                takeSnapshot();
+            } catch (IOException | RuntimeException e) {
+                System.out.printf("   ⚠️  Snapshot failed: %s\n", e.getMessage());
+            }
+        }, period, period, unit);
+    }
+
+    public synchronized void stopPeriodicSnapshots() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+            snapshotScheduler = null;
+        }
+    }
+
+    // Subscribes the observer to the event types it declares (all types for plain observers)
     @Override
     public void registerObserver(OrderObserver observer) {
-        if (!observers.contains(observer)) {
-            observers.add(observer);
+        registerObserver(observer, OrderObserverAdapter.wrap(observer, this::getOrder).subscribedEvents());
+    }
+
+    // Subscribes the observer to the given event types only
+    // Every observer is wrapped for fault isolation and metrics, exposed over JMX
+    public synchronized void registerObserver(OrderObserver observer, Set<OrderEventType> eventTypes) {
+        requireNoRingBus();
+        if (!registrations.containsKey(observer)) {
+            InstrumentedListener listener = new InstrumentedListener(
+                    OrderObserverAdapter.wrap(observer, this::getOrder), deadLetters, retryPolicy);
+            listener.getMetrics().setQueueDepth(() -> pendingEvents(listener));
+            listener.getMetrics().setDroppedEvents(() -> droppedEvents(listener));
+            registrations.put(observer, listener);
+            routing.subscribe(listener, eventTypes);
+            if (asyncDispatcher != null) {
+                asyncDispatcher.attach(listener, eventTypes);
+            }
+            registerMetricsBean(listener);
             System.out.printf("   📝 Observer registered: %s\n", observer.getObserverName());
         }
     }
 
     @Override
-    public void removeObserver(OrderObserver observer) {
-        observers.remove(observer);
+    public synchronized void removeObserver(OrderObserver observer) {
+        requireNoRingBus();
+        InstrumentedListener listener = registrations.remove(observer);
+        if (listener != null) {
+            routing.unsubscribe(listener);
+            if (asyncDispatcher != null) {
+                asyncDispatcher.detach(listener);
+            }
+            unregisterMetricsBean(listener);
+            closeQuietly(observer);
+        }
         System.out.printf("   ❌ Observer removed: %s\n", observer.getObserverName());
     }
 
+    // Observers holding resources (threads, pending messages) release them once unsubscribed
+    private static void closeQuietly(OrderObserver observer) {
+        if (observer instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                System.out.printf("   ❌ Closing %s failed: %s\n", observer.getObserverName(), e.getMessage());
+            }
+        }
+    }
+
+    // Legacy OrderSubject entry point - publishes the event for the last touched order
     @Override
     public void notifyObservers(String eventType) {
-        System.out.printf("\n   🔔 Notifying %d observers about: %s\n", observers.size(), eventType);
+        Order order = currentOrder;
+        if (order != null) {
+            OrderEventType type = OrderEventType.valueOf(eventType);
+            reserveDelivery(type, 1);
+            publish(newEvent(type, order));
+        }
+    }
+
+    private void publish(OrderEvent event) {
+        List<OrderEvent> deferred = deferredEvents.get();
+        if (deferred != null) {
+            deferred.add(event);
+            return;
+        }
+        appendToLog(event);
+        dispatchModeLock.readLock().lock();
+        try {
+            deliver(event);
+        } finally {
+            dispatchModeLock.readLock().unlock();
+        }
+    }
+
+    private void deliver(OrderEvent event) {
+        RingBufferEventBus bus = ringBus;
+        if (bus != null) {
+            bus.publish(event);
+            return;
+        }
+        AsyncObserverDispatcher dispatcher = asyncDispatcher;
+        if (dispatcher != null) {
+            dispatcher.dispatch(event);
+            return;
+        }
+        List<OrderEventListener> targets = routing.targetsFor(event.type());
+        System.out.printf("\n   🔔 Notifying %d observers about: %s\n", targets.size(), event.type());
         System.out.println("   " + "─".repeat(40));
-        for (OrderObserver observer : observers) {
-            observer.update(currentOrder, eventType);
+        for (int i = 0; i < targets.size(); i++) {
+            OrderEventListener listener = targets.get(i);
+            if (!replaying || !listener.hasExternalEffects()) {
+                listener.onEvent(event);
+            }
         }
     }
 
-    public Order createOrder(String customerName, String email, md.utm.tmps.domain.models.Computer computer) {
-        Order order = new Order(customerName, email, computer);
-        this.currentOrder = order;
-        orders.put(order.getOrderId(), order);
-        notifyObservers("ORDER_CREATED");
-        return order;
+    private void appendToLog(OrderEvent event) {
+        OrderEventLog log = eventLog;
+        if (log != null && !replaying) {
+            log.append(event);
+        }
     }
 
-    public void confirmOrder(String orderId) {
-        Order order = orders.get(orderId);
-        if (order != null) {
-            order.setStatus(Order.OrderStatus.CONFIRMED);
-            this.currentOrder = order;
-            notifyObservers("ORDER_CONFIRMED");
+    // One notification per listener for the whole batch
+    // logged: the events already went to the event log when they were applied
+    private void publishBatch(List<OrderEvent> events, boolean logged) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!logged) {
+            events.forEach(this::appendToLog);
+            syncLog();
+        }
+        dispatchModeLock.readLock().lock();
+        try {
+            deliverBatch(events);
+        } finally {
+            dispatchModeLock.readLock().unlock();
         }
     }
 
-    public void processOrder(String orderId) {
-        Order order = orders.get(orderId);
-        if (order != null) {
-            order.setStatus(Order.OrderStatus.PROCESSING);
-            this.currentOrder = order;
-            notifyObservers("ORDER_PROCESSING");
+    private void deliverBatch(List<OrderEvent> events) {
+        RingBufferEventBus bus = ringBus;
+        if (bus != null) {
+            events.forEach(bus::publish);
+            return;
+        }
+        AsyncObserverDispatcher dispatcher = asyncDispatcher;
+        if (dispatcher != null) {
+            dispatcher.dispatchAll(events);
+            return;
+        }
+        List<OrderEventListener> targets = routing.allTargets();
+        System.out.printf("\n   🔔 Notifying %d observers about a batch of %d events\n", targets.size(), events.size());
+        System.out.println("   " + "─".repeat(40));
+        for (OrderEventListener listener : targets) {
+            if (replaying && listener.hasExternalEffects()) {
+                continue;
+            }
+            List<OrderEvent> routed = routing.filter(listener, events);
+            if (!routed.isEmpty()) {
+                listener.onEvents(routed);
+            }
         }
     }
 
-    public void shipOrder(String orderId) {
-        Order order = orders.get(orderId);
-        if (order != null) {
-            order.setStatus(Order.OrderStatus.SHIPPED);
-            this.currentOrder = order;
-            notifyObservers("ORDER_SHIPPED");
+    // Runs the work with this thread's notifications held back, then publishes everything it
+    // caused as one batch - also when the work fails. A change the work rolls back with
+    // revertStatus() takes its event out of the batch, so observers see only the net outcome.
+    // Nested calls join the outermost batch
+    public <T> T deferNotifications(Supplier<T> work) {
+        if (deferredEvents.get() != null) {
+            return work.get();
+        }
+        List<OrderEvent> events = new ArrayList<>();
+        deferredEvents.set(events);
+        try {
+            return work.get();
+        } finally {
+            deferredEvents.remove();
+            publishBatch(events, false);
         }
     }
 
-    public void deliverOrder(String orderId) {
-        Order order = orders.get(orderId);
-        if (order != null) {
-            order.setStatus(Order.OrderStatus.DELIVERED);
+    // Like deferNotifications(), but hands the held-back events to the caller, who publishes
+    // them later - possibly from another thread - with publishEvents(). Inside an outer
+    // deferral the events join that batch instead and the returned list is empty
+    public List<OrderEvent> captureNotifications(Runnable work) {
+        if (deferredEvents.get() != null) {
+            work.run();
+            return List.of();
+        }
+        List<OrderEvent> events = new ArrayList<>();
+        deferredEvents.set(events);
+        try {
+            work.run();
+        } finally {
+            deferredEvents.remove();
+        }
+        return events;
+    }
+
+    public void publishEvents(List<OrderEvent> events) {
+        publishBatch(events, false);
+    }
+
+    // Replay mode for rebuilding state from a command journal: observers with external
+    // effects (customer notifications) are skipped and nothing is appended to the event log.
+    // Needs synchronous dispatch, so every remaining observer has caught up when replay ends
+    public synchronized void setReplaying(boolean replaying) {
+        if (replaying && (asyncDispatcher != null || ringBus != null)) {
+            throw new IllegalStateException("Replay needs synchronous observer dispatch");
+        }
+        this.replaying = replaying;
+        this.replayTimeMillis = 0;
+    }
+
+    public boolean isReplaying() {
+        return replaying;
+    }
+
+    // Time stamped on the events of the command being replayed, so windows, daily counts and
+    // demand forecasts land where they did originally rather than all at "now".
+    // Reset by setReplaying(); until set, replayed events get the current time
+    public void setReplayTime(long timestampMillis) {
+        this.replayTimeMillis = timestampMillis;
+    }
+
+    private OrderEvent newEvent(OrderEventType type, Order order) {
+        long replayTime = replayTimeMillis;
+        long timestamp = replaying && replayTime > 0 ? replayTime : System.currentTimeMillis();
+        return OrderEvent.of(eventSequence.incrementAndGet(), type, order, timestamp);
+    }
+
+    // Every event published from now on is also appended to the log (null to stop)
+    // Single changes and createOrders/confirmOrders append under the order's lock as the change
+    // is applied, so those keep one order's events in order. Events held back by
+    // deferNotifications/captureNotifications are appended only when the batch is published:
+    // a change another thread makes to the same order in between can land in the log first.
+    // Every event carries the sequence number taken when it was applied, which orders them.
+    public void setEventLog(OrderEventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    public OrderEventLog getEventLog() {
+        return eventLog;
+    }
+
+    // Replays logged events the observer has not consumed yet (all of them when fromStart)
+    // and commits its offset; the consumer is named after the observer.
+    // Live deliveries are not committed, so run this before the observer starts receiving events
+    public long catchUpObserver(OrderObserver observer, boolean fromStart) {
+        OrderEventLog log = eventLog;
+        if (log == null) {
+            throw new IllegalStateException("No event log attached");
+        }
+        String consumer = observer.getObserverName();
+        if (fromStart) {
+            log.resetConsumer(consumer);
+        }
+        long replayed = log.catchUp(consumer, OrderObserverAdapter.wrap(observer, this::getOrder));
+        System.out.printf("   ⏪ %s caught up on %d events (offset %d)\n",
+                consumer, replayed, log.getCommittedOffset(consumer));
+        return replayed;
+    }
+
+    // Switches to asynchronous delivery: each observer gets its own bounded buffer
+    // and order mutations return as soon as the event is enqueued
+    public synchronized void enableAsyncDispatch(int bufferCapacity, OverflowPolicy overflowPolicy) {
+        if (asyncDispatcher != null) {
+            return;
+        }
+        requireNoRingBus();
+        AsyncObserverDispatcher dispatcher = new AsyncObserverDispatcher(bufferCapacity, overflowPolicy);
+        for (OrderEventListener listener : routing.allTargets()) {
+            dispatcher.attach(listener, routing.subscriptionOf(listener));
+        }
+        dispatchModeLock.writeLock().lock();
+        try {
+            this.asyncDispatcher = dispatcher;
+        } finally {
+            dispatchModeLock.writeLock().unlock();
+        }
+        System.out.printf("   ⚡ Async observer dispatch enabled (buffer: %d, overflow: %s)\n",
+                bufferCapacity, overflowPolicy);
+    }
+
+    // Drains pending events and returns to synchronous delivery
+    // Publishers wait meanwhile and then deliver synchronously, after everything buffered
+    public synchronized void disableAsyncDispatch(long timeout, TimeUnit unit) throws InterruptedException {
+        AsyncObserverDispatcher dispatcher = asyncDispatcher;
+        if (dispatcher != null) {
+            requireNoBackoff(retryPolicy);
+            dispatchModeLock.writeLock().lock();
+            try {
+                dispatcher.shutdown(timeout, unit);
+                this.asyncDispatcher = null;
+            } finally {
+                dispatchModeLock.writeLock().unlock();
+            }
+        }
+    }
+
+    public boolean isAsyncDispatchEnabled() {
+        return asyncDispatcher != null;
+    }
+
+    // Switches to the ring-buffer bus: every observer consumes a preallocated ring on its own
+    // thread, and runsAfter maps an observer to the observers that must finish each event first
+    // (e.g. inventory before customer notifications). The observer set is fixed until it is disabled
+    public synchronized void enableRingBufferDispatch(int capacity,
+                                                      Map<OrderObserver, List<OrderObserver>> runsAfter) {
+        if (ringBus != null) {
+            return;
+        }
+        if (asyncDispatcher != null) {
+            throw new IllegalStateException("Disable async dispatch before enabling the ring buffer");
+        }
+        RingBufferEventBus bus = new RingBufferEventBus(capacity);
+        Map<OrderObserver, RingBufferEventBus.Stage> stages = new HashMap<>();
+        for (OrderObserver observer : registrations.keySet()) {
+            addRingStage(bus, observer, runsAfter, stages, new HashSet<>());
+        }
+        bus.start();
+        dispatchModeLock.writeLock().lock();
+        try {
+            this.ringBus = bus;
+        } finally {
+            dispatchModeLock.writeLock().unlock();
+        }
+        System.out.printf("   ⚡ Ring buffer dispatch enabled (%d slots, %d stages)\n", capacity, stages.size());
+    }
+
+    // Upstream observers get their stages first; a dependency cycle can never make progress
+    private RingBufferEventBus.Stage addRingStage(RingBufferEventBus bus, OrderObserver observer,
+                                                  Map<OrderObserver, List<OrderObserver>> runsAfter,
+                                                  Map<OrderObserver, RingBufferEventBus.Stage> stages,
+                                                  Set<OrderObserver> visiting) {
+        RingBufferEventBus.Stage stage = stages.get(observer);
+        if (stage != null) {
+            return stage;
+        }
+        InstrumentedListener listener = registrations.get(observer);
+        if (listener == null) {
+            throw new IllegalArgumentException("Observer is not registered: " + observer.getObserverName());
+        }
+        if (!visiting.add(observer)) {
+            throw new IllegalArgumentException("Observer dependency cycle at " + observer.getObserverName());
+        }
+        List<RingBufferEventBus.Stage> upstream = new ArrayList<>();
+        for (OrderObserver dependency : runsAfter.getOrDefault(observer, List.of())) {
+            upstream.add(addRingStage(bus, dependency, runsAfter, stages, visiting));
+        }
+        stage = bus.addStage(listener, routing.subscriptionOf(listener),
+                upstream.toArray(new RingBufferEventBus.Stage[0]));
+        stages.put(observer, stage);
+        return stage;
+    }
+
+    // Waits for every stage to drain the ring and returns to synchronous delivery
+    // Publishers wait meanwhile and then deliver synchronously, after everything in the ring
+    public synchronized void disableRingBufferDispatch(long timeout, TimeUnit unit) throws InterruptedException {
+        RingBufferEventBus bus = ringBus;
+        if (bus != null) {
+            requireNoBackoff(retryPolicy);
+            dispatchModeLock.writeLock().lock();
+            try {
+                bus.shutdown(timeout, unit);
+                this.ringBus = null;
+            } finally {
+                dispatchModeLock.writeLock().unlock();
+            }
+        }
+    }
+
+    public boolean isRingBufferDispatchEnabled() {
+        return ringBus != null;
+    }
+
+    private void requireNoRingBus() {
+        if (ringBus != null) {
+            throw new IllegalStateException("Observers cannot change while ring buffer dispatch is enabled");
+        }
+    }
+
+    // Events waiting to be delivered to the observer; 0 when dispatch is synchronous
+    public synchronized int getObserverLag(OrderObserver observer) {
+        OrderEventListener listener = registrations.get(observer);
+        return listener == null ? 0 : pendingEvents(listener);
+    }
+
+    private int pendingEvents(OrderEventListener listener) {
+        RingBufferEventBus bus = ringBus;
+        if (bus != null) {
+            return Math.max(0, bus.getLag(listener));
+        }
+        AsyncObserverDispatcher dispatcher = asyncDispatcher;
+        return dispatcher == null ? 0 : Math.max(0, dispatcher.getLag(listener));
+    }
+
+    // Events the async dispatcher could not buffer for the listener (0 when dispatch is synchronous)
+    private long droppedEvents(OrderEventListener listener) {
+        AsyncObserverDispatcher dispatcher = asyncDispatcher;
+        return dispatcher == null ? 0 : dispatcher.getDroppedCount(listener);
+    }
+
+    // Applies to current and future observers
+    // A policy with backoff needs async or ring buffer dispatch: synchronous delivery runs under
+    // the order's stripe lock, and sleeping there would stall every order on the stripe
+    public synchronized void setRetryPolicy(RetryPolicy retryPolicy) {
+        if (asyncDispatcher == null && ringBus == null) {
+            requireNoBackoff(retryPolicy);
+        }
+        this.retryPolicy = retryPolicy;
+        registrations.values().forEach(listener -> listener.setRetryPolicy(retryPolicy));
+    }
+
+    private static void requireNoBackoff(RetryPolicy policy) {
+        if (policy.backoffMillis() > 0) {
+            throw new IllegalStateException("Retry backoff of " + policy.backoffMillis()
+                    + " ms is not allowed with synchronous dispatch; set a policy without backoff first");
+        }
+    }
+
+    public DeadLetterQueue getDeadLetters() {
+        return deadLetters;
+    }
+
+    public synchronized ObserverMetrics getObserverMetrics(OrderObserver observer) {
+        InstrumentedListener listener = registrations.get(observer);
+        return listener == null ? null : listener.getMetrics();
+    }
+
+    public synchronized List<ObserverMetrics> getAllObserverMetrics() {
+        List<ObserverMetrics> metrics = new ArrayList<>();
+        registrations.values().forEach(listener -> metrics.add(listener.getMetrics()));
+        return metrics;
+    }
+
+    // md.utm.tmps:type=OrderObserver,manager=<n>,name="<observer>" on the platform MBean server
+    private void registerMetricsBean(InstrumentedListener listener) {
+        try {
+            ObjectName name = new ObjectName("md.utm.tmps:type=OrderObserver,manager=" + managerId
+                    + ",name=" + ObjectName.quote(listener.getObserverName()));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(listener.getMetrics(), name);
+                metricsBeans.put(listener, name);
+            }
+        } catch (JMException e) {
+            System.out.printf("   ⚠️  Could not expose metrics for %s over JMX: %s\n",
+                    listener.getObserverName(), e.getMessage());
+        }
+    }
+
+    private void unregisterMetricsBean(InstrumentedListener listener) {
+        ObjectName name = metricsBeans.remove(listener);
+        if (name != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            } catch (JMException e) {
+                // Already gone - nothing left to clean up
+            }
+        }
+    }
+
+    public Order createOrder(String customerName, String email, Computer computer) {
+        return insert(new Order(customerName, email, computer));
+    }
+
+    // Recreates an order under its original id and creation time (journal replay)
+    public Order createOrder(long orderId, String customerName, String email, Computer computer,
+                             LocalDateTime createdAt) {
+        return addOrder(new Order(orderId, customerName, email, computer, createdAt));
+    }
+
+    // Adds an order built (and possibly priced) elsewhere, e.g. by the staged command pipeline
+    public Order addOrder(Order order) {
+        return insert(order);
+    }
+
+    // The id is claimed under the order's lock, so a duplicate is rejected before anything
+    // is indexed, logged or announced
+    private Order insert(Order order) {
+        synchronized (lockFor(order.getId())) {
+            AsyncObserverDispatcher reserved = reserveDelivery(OrderEventType.ORDER_CREATED, 1);
+            if (!orders.putIfAbsent(order)) {
+                releaseDelivery(reserved, OrderEventType.ORDER_CREATED, 1);
+                throw new IllegalStateException("Order already exists: " + order.getOrderId());
+            }
+            index.add(order);
+            if (writeAheadLog != null) {
+                writeAheadLog.appendCreated(order);
+            }
             this.currentOrder = order;
-            notifyObservers("ORDER_DELIVERED");
+            publish(newEvent(OrderEventType.ORDER_CREATED, order));
         }
+        syncLog();
+        return order;
     }
 
-    public void cancelOrder(String orderId) {
-        Order order = orders.get(orderId);
-        if (order != null) {
-            order.setStatus(Order.OrderStatus.CANCELLED);
+    // Bulk entry point: inserts the whole batch, then delivers a single batched
+    // notification per observer instead of one fan-out per order
+    // All or nothing: every id is claimed first, and a duplicate releases the claims and rejects
+    // the batch before anything is indexed, logged or announced. Claimed orders are briefly in
+    // the store unindexed, but their ids have not been handed out yet, so nobody can address them
+    public List<Order> createOrders(List<OrderRequest> requests) {
+        List<Order> created = new ArrayList<>(requests.size());
+        for (OrderRequest request : requests) {
+            created.add(new Order(request.customerName(), request.customerEmail(), request.computer()));
+        }
+        AsyncObserverDispatcher reserved = reserveDelivery(OrderEventType.ORDER_CREATED, created.size());
+        for (int i = 0; i < created.size(); i++) {
+            Order order = created.get(i);
+            boolean claimed;
+            synchronized (lockFor(order.getId())) {
+                claimed = orders.putIfAbsent(order);
+            }
+            if (!claimed) {
+                rollBackClaims(created.subList(0, i));
+                releaseDelivery(reserved, OrderEventType.ORDER_CREATED, created.size());
+                throw new IllegalStateException("Order already exists: " + order.getOrderId());
+            }
+        }
+        List<OrderEvent> events = new ArrayList<>(created.size());
+        for (Order order : created) {
+            synchronized (lockFor(order.getId())) {
+                index.add(order);
+                if (writeAheadLog != null) {
+                    writeAheadLog.appendCreated(order);
+                }
+                OrderEvent event = newEvent(OrderEventType.ORDER_CREATED, order);
+                appendToLog(event);
+                events.add(event);
+            }
+        }
+        if (!created.isEmpty()) {
+            this.currentOrder = created.get(created.size() - 1);
+        }
+        syncLog();
+        publishBatch(events, true);
+        return created;
+    }
+
+    private void rollBackClaims(List<Order> claimed) {
+        for (Order order : claimed) {
+            synchronized (lockFor(order.getId())) {
+                orders.remove(order.getId());
+            }
+        }
+    }
+
+    // Confirms every known order in the batch; unknown ids and illegal transitions are skipped
+    public int confirmOrders(Collection<String> orderIds) {
+        List<OrderEvent> events = new ArrayList<>(orderIds.size());
+        AsyncObserverDispatcher reserved = reserveDelivery(OrderEventType.ORDER_CONFIRMED, orderIds.size());
+        for (String orderId : orderIds) {
+            Order order = getOrder(orderId);
+            if (order == null) {
+                continue;
+            }
+            synchronized (lockFor(order.getId())) {
+                order = orders.get(order.getId());
+                Order.OrderStatus previous = order.getStatus();
+                if (!order.transitionTo(Order.OrderStatus.CONFIRMED)) {
+                    reportRejected(order, previous, Order.OrderStatus.CONFIRMED);
+                    continue;
+                }
+                orders.update(order);
+                index.statusChanged(order.getId(), previous, Order.OrderStatus.CONFIRMED);
+                if (writeAheadLog != null) {
+                    writeAheadLog.appendStatusChange(order);
+                }
+                this.currentOrder = order;
+                OrderEvent event = newEvent(OrderEventType.ORDER_CONFIRMED, order);
+                appendToLog(event);
+                events.add(event);
+            }
+        }
+        releaseDelivery(reserved, OrderEventType.ORDER_CONFIRMED, orderIds.size() - events.size());
+        syncLog();
+        publishBatch(events, true);
+        return events.size();
+    }
+
+    // Lifecycle operations return false when the order is unknown or the
+    // transition is not allowed from its current status
+    public boolean confirmOrder(String orderId) {
+        return transition(orderId, OrderEventType.ORDER_CONFIRMED);
+    }
+
+    public boolean processOrder(String orderId) {
+        return transition(orderId, OrderEventType.ORDER_PROCESSING);
+    }
+
+    public boolean shipOrder(String orderId) {
+        return transition(orderId, OrderEventType.ORDER_SHIPPED);
+    }
+
+    public boolean deliverOrder(String orderId) {
+        return transition(orderId, OrderEventType.ORDER_DELIVERED);
+    }
+
+    public boolean cancelOrder(String orderId) {
+        return transition(orderId, OrderEventType.ORDER_CANCELLED);
+    }
+
+    // Illegal transitions are rejected before taking the lock; the compare-and-set on the
+    // order decides races. The applied change and its notification happen under the
+    // order's stripe lock, so observers see one order's events in the order they were applied
+    private boolean transition(String orderId, OrderEventType eventType) {
+        Order order = getOrder(orderId);
+        if (order == null) {
+            return false;
+        }
+        Order.OrderStatus target = eventType.getStatus();
+        if (!order.getStatus().canTransitionTo(target)) {
+            reportRejected(order, order.getStatus(), target);
+            return false;
+        }
+        synchronized (lockFor(order.getId())) {
+            AsyncObserverDispatcher reserved = reserveDelivery(eventType, 1);
+            // A store handing out copies needs the state as of the lock, not of the pre-check
+            order = orders.get(order.getId());
+            Order.OrderStatus previous = order.getStatus();
+            if (!order.transitionTo(target)) {
+                releaseDelivery(reserved, eventType, 1);
+                reportRejected(order, previous, target);
+                return false;
+            }
+            orders.update(order);
+            index.statusChanged(order.getId(), previous, target);
+            if (writeAheadLog != null) {
+                writeAheadLog.appendStatusChange(order);
+            }
             this.currentOrder = order;
-            notifyObservers("ORDER_CANCELLED");
+            publish(newEvent(eventType, order));
         }
+        syncLog();
+        return true;
     }
 
+    // Compensating status change for undo: applied only if the order is still in the
+    // status the undone command left it in. Logged and indexed, but not announced; when the
+    // change being undone is still held back by deferNotifications(), its event is dropped.
+    public boolean revertStatus(String orderId, Order.OrderStatus expectedCurrent, Order.OrderStatus restored) {
+        Order order = getOrder(orderId);
+        if (order == null) {
+            return false;
+        }
+        synchronized (lockFor(order.getId())) {
+            order = orders.get(order.getId());
+            if (!order.revertStatus(expectedCurrent, restored)) {
+                return false;
+            }
+            orders.update(order);
+            index.statusChanged(order.getId(), expectedCurrent, restored);
+            if (writeAheadLog != null) {
+                writeAheadLog.appendStatusChange(order);
+            }
+            List<OrderEvent> deferred = deferredEvents.get();
+            if (deferred != null) {
+                dropLatest(deferred, orderId, expectedCurrent);
+            }
+        }
+        syncLog();
+        return true;
+    }
+
+    // The newest held-back event that moved the order into the status just reverted
+    private void dropLatest(List<OrderEvent> deferred, String orderId, Order.OrderStatus status) {
+        for (int i = deferred.size() - 1; i >= 0; i--) {
+            OrderEvent event = deferred.get(i);
+            if (event.status() == status && event.orderId().equals(orderId)) {
+                deferred.remove(i);
+                releaseDelivery(asyncDispatcher, event.type(), 1);
+                return;
+            }
+        }
+    }
+
+    // Under OverflowPolicy.FAIL, claims buffer room for the events a change is about to cause,
+    // throwing before anything is applied when an observer is full. Returns the dispatcher the
+    // room was claimed on, to release it if the change is rejected after all
+    private AsyncObserverDispatcher reserveDelivery(OrderEventType type, int count) {
+        AsyncObserverDispatcher dispatcher = asyncDispatcher;
+        if (dispatcher != null) {
+            dispatcher.reserve(type, count);
+        }
+        return dispatcher;
+    }
+
+    private static void releaseDelivery(AsyncObserverDispatcher dispatcher, OrderEventType type, int count) {
+        if (dispatcher != null) {
+            dispatcher.release(type, count);
+        }
+    }
+
+    private void reportRejected(Order order, Order.OrderStatus from, Order.OrderStatus to) {
+        System.out.printf("   ⛔ Order %s: transition %s → %s rejected\n",
+                order.getOrderId(), from.getDescription(), to.getDescription());
+    }
+
+    // Waits for durability outside the stripe lock, so writers on the same stripe keep
+    // appending while one of them waits - that is what lets group commit batch them.
+    // Covers the event log too, so a PER_BATCH event log is forced with the WAL
+    private void syncLog() {
+        if (writeAheadLog != null) {
+            writeAheadLog.sync();
+        }
+        OrderEventLog log = eventLog;
+        if (log != null && !replaying) {
+            log.sync();
+        }
+    }
+
+    private Object lockFor(long orderId) {
+        int h = Long.hashCode(orderId * 0x9E3779B97F4A7C15L);
+        return locks[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    // Unknown and malformed ids both resolve to null
     public Order getOrder(String orderId) {
-        return orders.get(orderId);
+        long id;
+        try {
+            id = Order.parseId(orderId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return orders.get(id);
     }
 
+    // Last order touched by any thread; only meaningful for single-threaded callers
     public Order getCurrentOrder() {
         return currentOrder;
     }
 
     public int getObserverCount() {
-        return observers.size();
+        return routing.size();
+    }
+
+    // O(1) per-status count maintained alongside the index
+    public long countByStatus(Order.OrderStatus status) {
+        return index.countByStatus(status);
+    }
+
+    // Cursor-based paging over the secondary indexes - never copies the full order set.
+    // Pages are ordered by order id; pass null as the cursor for the first page.
+    public OrderPage findOrders(String cursor, int limit) {
+        return OrderIndex.page(index.allIds(), cursor, limit, orders::get, order -> true);
+    }
+
+    public OrderPage findByStatus(Order.OrderStatus status, String cursor, int limit) {
+        return OrderIndex.page(index.idsByStatus(status), cursor, limit, orders::get,
+                order -> order.getStatus() == status);
+    }
+
+    public OrderPage findByCustomerEmail(String email, String cursor, int limit) {
+        return OrderIndex.page(index.idsByCustomerEmail(email), cursor, limit, orders::get, order -> true);
+    }
+
+    public OrderPage findByCustomerName(String customerName, String cursor, int limit) {
+        return OrderIndex.page(index.idsByCustomerName(customerName), cursor, limit, orders::get, order -> true);
+    }
+
+    public OrderPage findByComputerName(String computerName, String cursor, int limit) {
+        return OrderIndex.page(index.idsByComputerName(computerName), cursor, limit, orders::get, order -> true);
+    }
+
+    public boolean isDurable() {
+        return writeAheadLog != null;
     }
 
     public List<Order> getAllOrders() {
-        return new ArrayList<>(orders.values());
+        List<Order> all = new ArrayList<>(orders.size());
+        orders.forEach(all::add);
+        return all;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package md.utm.tmps.domain.observer;
+
+import md.utm.tmps.domain.models.Order;
+import java.util.function.Function;
+
+// Adapter - lets a plain OrderObserver receive typed OrderEvents
+// The observer still gets the live Order (resolved by id) and the event type name
+public class OrderObserverAdapter implements OrderEventListener {
+    private final OrderObserver observer;
+    private final Function<String, Order> orderResolver;
+
+    public OrderObserverAdapter(OrderObserver observer, Function<String, Order> orderResolver) {
+        this.observer = observer;
+        this.orderResolver = orderResolver;
+    }
+
+    @Override
+    public void onEvent(OrderEvent event) {
+        Order order = orderResolver.apply(event.orderId());
+        if (order != null) {
+            observer.update(order, event.type().name());
+        }
+    }
+
+    @Override
+    public void update(Order order, String eventType) {
+        observer.update(order, eventType);
+    }
+
+    @Override
+    public String getObserverName() {
+        return observer.getObserverName();
+    }
+
+    public OrderObserver getObserver() {
+        return observer;
+    }
+
+    public static OrderEventListener wrap(OrderObserver observer, Function<String, Order> orderResolver) {
+        return observer instanceof OrderEventListener listener
+                ? listener
+                : new OrderObserverAdapter(observer, orderResolver);
+    }
+}
@@ -0,0 +1,12 @@
+package md.utm.tmps.domain.observer;
+
+import md.utm.tmps.domain.models.Order;
+import java.util.List;
+
+// One page of a cursor-based order query
+// Pass nextCursor back to get the following page; it is null once the results are exhausted
+public record OrderPage(List<Order> orders, String nextCursor) {
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
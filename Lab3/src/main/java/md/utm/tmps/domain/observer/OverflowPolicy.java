@@ -0,0 +1,8 @@
+package md.utm.tmps.domain.observer;
+
+// What an asynchronous observer buffer does when a new event arrives and it is full
+public enum OverflowPolicy {
+    BLOCK,       // wait until the observer catches up
+    DROP_OLDEST, // evict the oldest pending event to make room
+    FAIL         // refuse the order change itself: the mutation throws before anything is applied
+}
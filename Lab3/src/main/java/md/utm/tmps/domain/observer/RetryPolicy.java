@@ -0,0 +1,21 @@
+package md.utm.tmps.domain.observer;
+
+// How often a failing observer call is retried before the event is dead-lettered
+// Backoff is slept on the delivering thread, so OrderManager only accepts it with async or
+// ring buffer dispatch, where that thread is the observer's own and holds no order lock
+public record RetryPolicy(int maxAttempts, long backoffMillis) {
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0);
+
+    public RetryPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+        }
+        if (backoffMillis < 0) {
+            throw new IllegalArgumentException("backoffMillis must not be negative: " + backoffMillis);
+        }
+    }
+
+    public static RetryPolicy attempts(int maxAttempts) {
+        return new RetryPolicy(maxAttempts, 0);
+    }
+}
@@ -0,0 +1,225 @@
+package md.utm.tmps.domain.observer;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Disruptor-style event bus: a preallocated power-of-two ring of event slots
+// Producers claim a sequence with one atomic increment, fill the slot and mark it published;
+// no locks and no queue nodes are involved. Every stage (one listener on its own thread)
+// tracks how far it has read, and may depend on other stages: it never passes an event
+// before its upstream stages are done with it (e.g. inventory before the "confirmed" email).
+// Producers wait only when the ring is full, i.e. when the slowest stage is a whole ring behind.
+public class RingBufferEventBus {
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    private final int capacity;
+    private final int mask;
+    private final int roundShift;
+    private final OrderEvent[] slots;
+    private final AtomicIntegerArray publishedRounds;
+    private final AtomicLong claimed;
+    private final List<Stage> stages;
+    private final Map<OrderEventListener, Stage> stagesByListener;
+    private volatile long cachedMinimumRead;
+    private volatile boolean accepting;
+    private volatile boolean started;
+
+    // Read position padded onto its own cache line, so stages don't slow each other down
+    private static final class Sequence extends AtomicLong {
+        private static final long serialVersionUID = 1L;
+
+        @SuppressWarnings("unused")
+        private long p1, p2, p3, p4, p5, p6, p7;
+
+        private Sequence(long initial) {
+            super(initial);
+        }
+    }
+
+    // One consumer of the ring: a listener, its own thread and the stages it waits for
+    public final class Stage implements Runnable {
+        private final OrderEventListener listener;
+        private final Set<OrderEventType> eventTypes;
+        private final Stage[] dependsOn;
+        private final Sequence sequence;
+        private Thread thread;
+
+        private Stage(OrderEventListener listener, Set<OrderEventType> eventTypes, Stage[] dependsOn) {
+            this.listener = listener;
+            this.eventTypes = eventTypes.isEmpty() ? EnumSet.noneOf(OrderEventType.class) : EnumSet.copyOf(eventTypes);
+            this.dependsOn = dependsOn;
+            this.sequence = new Sequence(-1);
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            int idle = 0;
+            while (true) {
+                long available = highestPublished(next, claimed.get());
+                for (Stage upstream : dependsOn) {
+                    available = Math.min(available, upstream.sequence.get());
+                }
+                if (available >= next) {
+                    for (long s = next; s <= available; s++) {
+                        OrderEvent event = slots[(int) s & mask];
+                        if (eventTypes.contains(event.type())) {
+                            deliver(event);
+                        }
+                    }
+                    sequence.set(available);
+                    next = available + 1;
+                    idle = 0;
+                } else if (!accepting && next > claimed.get()) {
+                    return;
+                } else {
+                    idle(idle++);
+                }
+            }
+        }
+
+        private void deliver(OrderEvent event) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException e) {
+                System.out.printf("   ⚠️  Ring buffer delivery to %s failed: %s\n",
+                        listener.getObserverName(), e.getMessage());
+            }
+        }
+
+        public long getSequence() {
+            return sequence.get();
+        }
+
+        public OrderEventListener getListener() {
+            return listener;
+        }
+    }
+
+    public RingBufferEventBus(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.roundShift = Integer.numberOfTrailingZeros(capacity);
+        this.slots = new OrderEvent[capacity];
+        this.publishedRounds = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            publishedRounds.set(i, -1);
+        }
+        this.claimed = new AtomicLong(-1);
+        this.stages = new ArrayList<>();
+        this.stagesByListener = new ConcurrentHashMap<>();
+        this.cachedMinimumRead = -1;
+    }
+
+    public Stage addStage(OrderEventListener listener, Stage... dependsOn) {
+        return addStage(listener, listener.subscribedEvents(), dependsOn);
+    }
+
+    // Stages are wired before start(); dependencies must already have been added.
+    // A stage skips events outside its types but still advances past them
+    public synchronized Stage addStage(OrderEventListener listener, Set<OrderEventType> eventTypes,
+                                       Stage... dependsOn) {
+        if (started) {
+            throw new IllegalStateException("Stages must be added before the bus is started");
+        }
+        Stage stage = new Stage(listener, eventTypes, dependsOn.clone());
+        stages.add(stage);
+        stagesByListener.put(listener, stage);
+        return stage;
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        accepting = true;
+        for (Stage stage : stages) {
+            stage.thread = new Thread(stage, "ring-" + stage.listener.getObserverName());
+            stage.thread.setDaemon(true);
+            stage.thread.start();
+        }
+    }
+
+    public void publish(OrderEvent event) {
+        if (!accepting) {
+            throw new IllegalStateException("Ring buffer event bus is not running");
+        }
+        long sequence = claimed.incrementAndGet();
+        long wrapPoint = sequence - capacity;
+        if (wrapPoint > cachedMinimumRead) {
+            long minimum;
+            int idle = 0;
+            while (wrapPoint > (minimum = minimumRead(sequence))) {
+                idle(idle++);
+            }
+            cachedMinimumRead = minimum;
+        }
+        int index = (int) sequence & mask;
+        slots[index] = event;
+        publishedRounds.set(index, (int) (sequence >>> roundShift));
+    }
+
+    // Stops accepting events and waits until every stage has processed what was published
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        accepting = false;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Stage stage : stages) {
+            if (stage.thread != null) {
+                stage.thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            }
+        }
+    }
+
+    // Events published but not yet processed by the listener's stage; -1 if it has no stage
+    public int getLag(OrderEventListener listener) {
+        Stage stage = stagesByListener.get(listener);
+        return stage == null ? -1 : (int) Math.max(0, claimed.get() - stage.sequence.get());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Published sequences may complete out of order across producers; stop at the first gap
+    private long highestPublished(long from, long claimedUpTo) {
+        for (long s = from; s <= claimedUpTo; s++) {
+            if (publishedRounds.get((int) s & mask) != (int) (s >>> roundShift)) {
+                return s - 1;
+            }
+        }
+        return claimedUpTo;
+    }
+
+    private long minimumRead(long fallback) {
+        long minimum = fallback;
+        for (Stage stage : stages) {
+            minimum = Math.min(minimum, stage.sequence.get());
+        }
+        return minimum;
+    }
+
+    // Spin, then yield, then park - cheap when busy, quiet when idle
+    private static void idle(int attempt) {
+        if (attempt < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (attempt < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package md.utm.tmps.domain.persistence;
+
+import md.utm.tmps.domain.models.Computer;
+import md.utm.tmps.domain.models.Order;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Shared helpers for the compact binary formats used by the logs and snapshots
+public final class BinaryCodec {
+
+    private BinaryCodec() {
+    }
+
+    // Nullable string: presence flag followed by modified UTF-8
+    public static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    public static void writeComputer(DataOutput out, Computer computer) throws IOException {
+        writeString(out, computer.getName());
+        writeString(out, computer.getCpu());
+        writeString(out, computer.getGpu());
+        writeString(out, computer.getRam());
+        writeString(out, computer.getStorage());
+        writeString(out, computer.getCaseType());
+        out.writeDouble(computer.getBasePrice());
+    }
+
+    public static Computer readComputer(DataInput in) throws IOException {
+        return new Computer(readString(in), readString(in), readString(in), readString(in),
+                readString(in), readString(in), in.readDouble());
+    }
+
+    // Full order: identity, customer, computer and current state
+    public static void writeOrder(DataOutput out, Order order) throws IOException {
+        out.writeLong(order.getId());
+        writeString(out, order.getCustomerName());
+        writeString(out, order.getCustomerEmail());
+        writeComputer(out, order.getComputer());
+        out.writeLong(toEpochMillis(order.getCreatedAt()));
+        writeOrderState(out, order);
+    }
+
+    public static Order readOrder(DataInput in) throws IOException {
+        Order order = new Order(in.readLong(), readString(in), readString(in),
+                readComputer(in), fromEpochMillis(in.readLong()));
+        readOrderState(in, order);
+        return order;
+    }
+
+    // Mutable part of an order - everything a status transition can change
+    public static void writeOrderState(DataOutput out, Order order) throws IOException {
+        out.writeByte(order.getStatus().ordinal());
+        out.writeDouble(order.getFinalPrice());
+        writeString(out, order.getDiscountApplied());
+        writeString(out, order.getPricingStrategy());
+        out.writeLong(toEpochMillis(order.getUpdatedAt()));
+    }
+
+    public static void readOrderState(DataInput in, Order order) throws IOException {
+        Order.OrderStatus status = Order.OrderStatus.values()[in.readByte()];
+        double finalPrice = in.readDouble();
+        String discountApplied = readString(in);
+        String pricingStrategy = readString(in);
+        order.restoreState(status, finalPrice, discountApplied, pricingStrategy, fromEpochMillis(in.readLong()));
+    }
+
+    // Timestamps are stored as epoch millis (UTC)
+    public static long toEpochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static LocalDateTime fromEpochMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
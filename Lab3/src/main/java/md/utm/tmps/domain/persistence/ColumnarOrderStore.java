@@ -0,0 +1,366 @@
+package md.utm.tmps.domain.persistence;
+
+import md.utm.tmps.domain.models.Computer;
+import md.utm.tmps.domain.models.Order;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Compact order repository for millions of orders
+// Every order is a fixed-width slot in off-heap (direct) memory: primitive id, status ordinal,
+// price and epoch-millis timestamps, plus dictionary codes for the repeated strings.
+// The only per-order heap cost is the id -> slot index, an int array that finds the id
+// in the slot itself. Orders are read through
+// reusable OrderView flyweights and only turned back into Order objects on demand.
+// As an OrderStore it hands out detached copies: OrderManager writes changes back through update().
+public class ColumnarOrderStore implements OrderStore {
+    // Slot layout (bytes)
+    private static final int ID = 0;              // long
+    private static final int CREATED_AT = 8;      // long, epoch millis
+    private static final int UPDATED_AT = 16;     // long, epoch millis
+    private static final int FINAL_PRICE = 24;    // double
+    private static final int CUSTOMER_NAME = 32;  // int, dictionary code
+    private static final int CUSTOMER_EMAIL = 36; // int, dictionary code
+    private static final int COMPUTER = 40;       // int, computer dictionary code
+    private static final int DISCOUNT = 44;       // int, dictionary code
+    private static final int STRATEGY = 48;       // int, dictionary code
+    private static final int STATUS = 52;         // byte, status ordinal
+    private static final int SLOT_SIZE = 53;
+
+    private static final int SLOTS_PER_CHUNK = 1 << 16;
+    // Index entries: a slot number, FREE, or REMOVED (a deleted entry that lookups probe past)
+    private static final int FREE = -1;
+    private static final int REMOVED = -2;
+    // Status byte of a slot whose order was removed; the slot is never reused
+    private static final byte DEAD = -1;
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    private final List<ByteBuffer> chunks;
+    private final StringDictionary customerNames;
+    private final StringDictionary customerEmails;
+    private final StringDictionary discounts;
+    private final StringDictionary strategies;
+    private final Map<String, Integer> computerCodes;
+    private final List<Computer> computers;
+    private final ReentrantReadWriteLock lock;
+    private int[] indexSlots;
+    private int size;
+    private int removed;
+
+    public ColumnarOrderStore() {
+        this.chunks = new CopyOnWriteArrayList<>();
+        this.customerNames = new StringDictionary();
+        this.customerEmails = new StringDictionary();
+        this.discounts = new StringDictionary();
+        this.strategies = new StringDictionary();
+        this.computerCodes = new ConcurrentHashMap<>();
+        this.computers = new CopyOnWriteArrayList<>();
+        this.lock = new ReentrantReadWriteLock();
+        this.indexSlots = new int[1024];
+        Arrays.fill(indexSlots, FREE);
+    }
+
+    // Flyweight over one slot; move it with moveTo() instead of allocating a view per order
+    // Getters read the slot directly; use toOrder() for a consistent copy while writers are active
+    public final class OrderView {
+        private int slot = -1;
+
+        private ByteBuffer chunk() {
+            return chunks.get(slot / SLOTS_PER_CHUNK);
+        }
+
+        private int offset() {
+            return (slot % SLOTS_PER_CHUNK) * SLOT_SIZE;
+        }
+
+        public boolean moveTo(long id) {
+            lock.readLock().lock();
+            try {
+                slot = find(id);
+                return slot >= 0;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        public long getId() { return chunk().getLong(offset() + ID); }
+        public String getOrderId() { return Order.formatId(getId()); }
+        public Order.OrderStatus getStatus() { return STATUSES[chunk().get(offset() + STATUS)]; }
+        public double getFinalPrice() { return chunk().getDouble(offset() + FINAL_PRICE); }
+        public long getCreatedAtMillis() { return chunk().getLong(offset() + CREATED_AT); }
+        public long getUpdatedAtMillis() { return chunk().getLong(offset() + UPDATED_AT); }
+        public String getCustomerName() { return customerNames.decode(chunk().getInt(offset() + CUSTOMER_NAME)); }
+        public String getCustomerEmail() { return customerEmails.decode(chunk().getInt(offset() + CUSTOMER_EMAIL)); }
+        public String getDiscountApplied() { return discounts.decode(chunk().getInt(offset() + DISCOUNT)); }
+        public String getPricingStrategy() { return strategies.decode(chunk().getInt(offset() + STRATEGY)); }
+
+        public Computer getComputer() { return computers.get(chunk().getInt(offset() + COMPUTER)); }
+
+        // Materializes a regular Order with the stored state
+        public Order toOrder() {
+            lock.readLock().lock();
+            try {
+                Order order = new Order(getId(), getCustomerName(), getCustomerEmail(), getComputer(),
+                        BinaryCodec.fromEpochMillis(getCreatedAtMillis()));
+                order.restoreState(getStatus(), getFinalPrice(), getDiscountApplied(), getPricingStrategy(),
+                        BinaryCodec.fromEpochMillis(getUpdatedAtMillis()));
+                return order;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    public OrderView newView() {
+        return new OrderView();
+    }
+
+    // Inserts the order or overwrites the slot that already holds its id
+    @Override
+    public void put(Order order) {
+        lock.writeLock().lock();
+        try {
+            int slot = find(order.getId());
+            write(slot < 0 ? newSlot(order.getId()) : slot, order);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(Order order) {
+        lock.writeLock().lock();
+        try {
+            if (find(order.getId()) >= 0) {
+                return false;
+            }
+            write(newSlot(order.getId()), order);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(Order order) {
+        updateState(order.getId(), order.getStatus(), order.getFinalPrice(), order.getDiscountApplied(),
+                order.getPricingStrategy(), BinaryCodec.toEpochMillis(order.getUpdatedAt()));
+    }
+
+    private int newSlot(long id) {
+        int slot = allocateSlot();
+        chunks.get(slot / SLOTS_PER_CHUNK).putLong((slot % SLOTS_PER_CHUNK) * SLOT_SIZE + ID, id);
+        index(id, slot);
+        return slot;
+    }
+
+    private void write(int slot, Order order) {
+        ByteBuffer chunk = chunks.get(slot / SLOTS_PER_CHUNK);
+        int offset = (slot % SLOTS_PER_CHUNK) * SLOT_SIZE;
+        chunk.putLong(offset + ID, order.getId());
+        chunk.putLong(offset + CREATED_AT, BinaryCodec.toEpochMillis(order.getCreatedAt()));
+        chunk.putInt(offset + CUSTOMER_NAME, customerNames.encode(order.getCustomerName()));
+        chunk.putInt(offset + CUSTOMER_EMAIL, customerEmails.encode(order.getCustomerEmail()));
+        chunk.putInt(offset + COMPUTER, encodeComputer(order.getComputer()));
+        writeState(chunk, offset, order.getStatus(), order.getFinalPrice(), order.getDiscountApplied(),
+                order.getPricingStrategy(), BinaryCodec.toEpochMillis(order.getUpdatedAt()));
+    }
+
+    public boolean updateState(long id, Order.OrderStatus status, double finalPrice,
+                               String discountApplied, String pricingStrategy, long updatedAtMillis) {
+        lock.writeLock().lock();
+        try {
+            int slot = find(id);
+            if (slot < 0) {
+                return false;
+            }
+            writeState(chunks.get(slot / SLOTS_PER_CHUNK), (slot % SLOTS_PER_CHUNK) * SLOT_SIZE,
+                    status, finalPrice, discountApplied, pricingStrategy, updatedAtMillis);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int mask = indexSlots.length - 1;
+            for (int i = hash(id) & mask; indexSlots[i] != FREE; i = (i + 1) & mask) {
+                int slot = indexSlots[i];
+                if (slot >= 0 && idAt(slot) == id) {
+                    indexSlots[i] = REMOVED;
+                    chunks.get(slot / SLOTS_PER_CHUNK).put((slot % SLOTS_PER_CHUNK) * SLOT_SIZE + STATUS, DEAD);
+                    removed++;
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Order get(long id) {
+        OrderView view = newView();
+        return view.moveTo(id) ? view.toOrder() : null;
+    }
+
+    // Visits every order with a single reused flyweight - no per-order allocation
+    public void forEachView(Consumer<OrderView> visitor) {
+        OrderView view = newView();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < size; slot++) {
+                if (!isDead(slot)) {
+                    view.slot = slot;
+                    visitor.accept(view);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Materializes one order at a time; slots are never reused, so the ones that existed
+    // when iteration started stay valid throughout
+    @Override
+    public Iterator<Order> iterator() {
+        int end = slotCount();
+        OrderView view = newView();
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                while (next < end && isDead(next)) {
+                    next++;
+                }
+                return next < end;
+            }
+
+            @Override
+            public Order next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                view.slot = next++;
+                return view.toOrder();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size - removed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int slotCount() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Direct memory allocated for slots (exact; the heap side is measured, not estimated)
+    public long offHeapBytes() {
+        return (long) chunks.size() * SLOTS_PER_CHUNK * SLOT_SIZE;
+    }
+
+    private void writeState(ByteBuffer chunk, int offset, Order.OrderStatus status, double finalPrice,
+                            String discountApplied, String pricingStrategy, long updatedAtMillis) {
+        chunk.put(offset + STATUS, (byte) status.ordinal());
+        chunk.putDouble(offset + FINAL_PRICE, finalPrice);
+        chunk.putInt(offset + DISCOUNT, discounts.encode(discountApplied));
+        chunk.putInt(offset + STRATEGY, strategies.encode(pricingStrategy));
+        chunk.putLong(offset + UPDATED_AT, updatedAtMillis);
+    }
+
+    // Computers are shared by every order built from the same configuration
+    private int encodeComputer(Computer computer) {
+        String key = String.join("|", computer.getName(), computer.getCpu(), computer.getGpu(),
+                computer.getRam(), computer.getStorage(), computer.getCaseType(),
+                Double.toString(computer.getBasePrice()));
+        return computerCodes.computeIfAbsent(key, k -> {
+            computers.add(computer);
+            return computers.size() - 1;
+        });
+    }
+
+    private int allocateSlot() {
+        if (size == chunks.size() * SLOTS_PER_CHUNK) {
+            chunks.add(ByteBuffer.allocateDirect(SLOTS_PER_CHUNK * SLOT_SIZE));
+        }
+        return size++;
+    }
+
+    private boolean isDead(int slot) {
+        return chunks.get(slot / SLOTS_PER_CHUNK).get((slot % SLOTS_PER_CHUNK) * SLOT_SIZE + STATUS) == DEAD;
+    }
+
+    private long idAt(int slot) {
+        return chunks.get(slot / SLOTS_PER_CHUNK).getLong((slot % SLOTS_PER_CHUNK) * SLOT_SIZE + ID);
+    }
+
+    // Open-addressing id -> slot table (kept at most half full); the key is read from the slot
+    private int find(long id) {
+        int mask = indexSlots.length - 1;
+        for (int i = hash(id) & mask; ; i = (i + 1) & mask) {
+            int slot = indexSlots[i];
+            if (slot == FREE) {
+                return -1;
+            }
+            if (slot >= 0 && idAt(slot) == id) {
+                return slot;
+            }
+        }
+    }
+
+    private void index(long id, int slot) {
+        if ((size + 1) * 2 > indexSlots.length) {
+            rehash(indexSlots.length * 2);
+        }
+        insert(indexSlots, id, slot);
+    }
+
+    private void rehash(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, FREE);
+        for (int slot : indexSlots) {
+            if (slot >= 0) {
+                insert(slots, idAt(slot), slot);
+            }
+        }
+        indexSlots = slots;
+    }
+
+    private static void insert(int[] slots, long id, int slot) {
+        int mask = slots.length - 1;
+        int i = hash(id) & mask;
+        while (slots[i] >= 0) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = slot;
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
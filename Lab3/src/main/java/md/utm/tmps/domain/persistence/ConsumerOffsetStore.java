@@ -0,0 +1,78 @@
+package md.utm.tmps.domain.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Committed read positions of named log consumers
+// Each consumer owns a tiny memory-mapped file holding [offset][~offset]; a commit is two
+// stores into the page cache, cheap enough to run every few thousand events, and survives
+// a process crash. flush() forces the files when surviving a machine crash matters too.
+// A torn or missing slot reads as offset 0, i.e. the consumer replays from the start.
+public class ConsumerOffsetStore implements Closeable {
+    private static final String SUFFIX = ".offset";
+    private static final int SLOT_SIZE = 16;
+
+    private final Path directory;
+    private final Map<String, MappedByteBuffer> slots;
+
+    public ConsumerOffsetStore(Path directory) throws IOException {
+        this.directory = directory;
+        this.slots = new ConcurrentHashMap<>();
+        Files.createDirectories(directory);
+    }
+
+    public long getCommitted(String consumer) {
+        MappedByteBuffer slot = slotFor(consumer);
+        synchronized (slot) {
+            long offset = slot.getLong(0);
+            return slot.getLong(8) == ~offset ? offset : 0;
+        }
+    }
+
+    public void commit(String consumer, long offset) {
+        MappedByteBuffer slot = slotFor(consumer);
+        synchronized (slot) {
+            slot.putLong(0, offset);
+            slot.putLong(8, ~offset);
+        }
+    }
+
+    public void flush() {
+        slots.values().forEach(MappedByteBuffer::force);
+    }
+
+    @Override
+    public void close() {
+        flush();
+        slots.clear();
+    }
+
+    private MappedByteBuffer slotFor(String consumer) {
+        return slots.computeIfAbsent(consumer, name -> {
+            Path path = directory.resolve(fileNameOf(name) + SUFFIX);
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer slot = channel.map(FileChannel.MapMode.READ_WRITE, 0, SLOT_SIZE);
+                if (slot.getLong(0) == 0 && slot.getLong(8) == 0) {
+                    slot.putLong(8, ~0L);
+                }
+                return slot;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open offset file for " + name, e);
+            }
+        });
+    }
+
+    // Observer names contain spaces and symbols; keep file names portable
+    private static String fileNameOf(String consumer) {
+        return consumer.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+}
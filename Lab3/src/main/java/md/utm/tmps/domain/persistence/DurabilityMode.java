@@ -0,0 +1,8 @@
+package md.utm.tmps.domain.persistence;
+
+// When appended log records are forced to disk
+public enum DurabilityMode {
+    PER_WRITE, // every append is forced before it returns
+    PER_BATCH, // group commit - one force covers every writer waiting at that moment
+    TIMER      // a background flusher forces on a fixed interval; appends never wait
+}
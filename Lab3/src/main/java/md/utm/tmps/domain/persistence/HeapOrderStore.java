@@ -0,0 +1,51 @@
+package md.utm.tmps.domain.persistence;
+
+import md.utm.tmps.domain.models.Order;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Default order store: the live Order objects in a concurrent map
+// Orders are shared with callers, so update() has nothing left to do.
+public class HeapOrderStore implements OrderStore {
+    private final Map<Long, Order> orders;
+
+    public HeapOrderStore() {
+        this.orders = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Order get(long id) {
+        return orders.get(id);
+    }
+
+    @Override
+    public boolean putIfAbsent(Order order) {
+        return orders.putIfAbsent(order.getId(), order) == null;
+    }
+
+    @Override
+    public void put(Order order) {
+        orders.put(order.getId(), order);
+    }
+
+    @Override
+    public void update(Order order) {
+        // the stored instance is the one that was changed
+    }
+
+    @Override
+    public boolean remove(long id) {
+        return orders.remove(id) != null;
+    }
+
+    @Override
+    public int size() {
+        return orders.size();
+    }
+
+    @Override
+    public Iterator<Order> iterator() {
+        return orders.values().iterator();
+    }
+}
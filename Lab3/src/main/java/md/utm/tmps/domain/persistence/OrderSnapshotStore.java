@@ -0,0 +1,147 @@
+package md.utm.tmps.domain.persistence;
+
+import md.utm.tmps.domain.models.Order;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Point-in-time snapshots of the order map in a compact binary format
+// A snapshot is tagged with the log LSN it covers: every log record before that LSN
+// is already reflected in it, so startup loads the snapshot and replays only the tail.
+// File layout: magic, version, lsn, then [1][order]... [0], then a CRC32C trailer.
+public class OrderSnapshotStore {
+    private static final int MAGIC = 0x4F524453; // "ORDS"
+    private static final int VERSION = 3;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+    private final int retainedSnapshots;
+
+    public OrderSnapshotStore(Path directory) throws IOException {
+        this(directory, 2);
+    }
+
+    public OrderSnapshotStore(Path directory, int retainedSnapshots) throws IOException {
+        this.directory = directory;
+        this.retainedSnapshots = Math.max(1, retainedSnapshots);
+        Files.createDirectories(directory);
+    }
+
+    // Writes to a temporary file and renames it, so a crash never leaves a partial snapshot
+    // Returns the number of orders written
+    public long write(long lsn, Iterable<Order> orders) throws IOException {
+        Path temp = directory.resolve(PREFIX + lsn + ".tmp");
+        long count = 0;
+        CRC32C crc = new CRC32C();
+        try (CheckedOutputStream checked = new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16), crc);
+             DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(lsn);
+            for (Order order : orders) {
+                out.writeByte(1);
+                BinaryCodec.writeOrder(out, order);
+                count++;
+            }
+            out.writeByte(0);
+            out.flush();
+            out.writeInt((int) crc.getValue());
+        }
+        Files.move(temp, snapshotPath(lsn), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        pruneOldSnapshots();
+        return count;
+    }
+
+    // Loads the newest valid snapshot into the store and returns its LSN; empty if none.
+    // Each file is checked end to end before any order is decoded, so orders go straight
+    // into the store and a corrupt snapshot never leaves part of itself behind.
+    public OptionalLong loadLatest(OrderStore orders) throws IOException {
+        for (Path path : listSnapshots()) {
+            if (isIntact(path)) {
+                return OptionalLong.of(load(path, orders));
+            }
+            System.out.printf("   ⚠️  Skipping corrupt snapshot %s\n", path.getFileName());
+        }
+        return OptionalLong.empty();
+    }
+
+    // Header and CRC32C trailer only - the body is checksummed without being decoded
+    private static boolean isIntact(Path path) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16), crc);
+             DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return false;
+            }
+            in.skipNBytes(Files.size(path) - 3L * Integer.BYTES);
+            int expected = (int) crc.getValue();
+            return in.readInt() == expected;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private static long load(Path path, OrderStore orders) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            in.skipNBytes(2L * Integer.BYTES);
+            long lsn = in.readLong();
+            while (in.readByte() == 1) {
+                orders.put(BinaryCodec.readOrder(in));
+            }
+            return lsn;
+        }
+    }
+
+    // Log segments may only be compacted up to the oldest snapshot kept as a fallback
+    public OptionalLong getOldestRetainedLsn() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        return snapshots.isEmpty()
+                ? OptionalLong.empty()
+                : OptionalLong.of(lsnOf(snapshots.get(snapshots.size() - 1)));
+    }
+
+    private void pruneOldSnapshots() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        for (int i = retainedSnapshots; i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> p.getFileName().toString().startsWith(PREFIX)
+                            && p.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(snapshots::add);
+        }
+        snapshots.sort(Comparator.comparingLong(OrderSnapshotStore::lsnOf).reversed());
+        return snapshots;
+    }
+
+    private Path snapshotPath(long lsn) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, lsn, SUFFIX));
+    }
+
+    private static long lsnOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
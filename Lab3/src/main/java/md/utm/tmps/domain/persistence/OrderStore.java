@@ -0,0 +1,25 @@
+package md.utm.tmps.domain.persistence;
+
+import md.utm.tmps.domain.models.Order;
+
+// Where OrderManager keeps its orders, keyed by the numeric order id
+// A store may hand out its live Order objects (HeapOrderStore) or detached copies
+// (ColumnarOrderStore), so whoever changes an order writes it back with update().
+// Iteration is weakly consistent: orders added while iterating may or may not be seen.
+public interface OrderStore extends Iterable<Order> {
+    Order get(long id);
+
+    // Adds the order unless its id is already taken; false for a duplicate
+    boolean putIfAbsent(Order order);
+
+    // Inserts the order or replaces the one stored under its id
+    void put(Order order);
+
+    // Persists the mutable state (status, pricing, updatedAt) of a stored order
+    void update(Order order);
+
+    // Drops the order stored under the id; false if there was none
+    boolean remove(long id);
+
+    int size();
+}
@@ -0,0 +1,100 @@
+package md.utm.tmps.domain.persistence;
+
+import md.utm.tmps.domain.models.Order;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+// Write-ahead log for OrderManager: one record per order creation and per status transition
+// Records are absolute (they carry the full resulting state), so replaying them is idempotent
+public class OrderWriteAheadLog implements Closeable {
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10;
+
+    private static final byte ORDER_CREATED = 1;
+    private static final byte STATUS_CHANGED = 2;
+
+    private final SegmentedLog log;
+
+    public OrderWriteAheadLog(SegmentedLog log) {
+        this.log = log;
+    }
+
+    public static OrderWriteAheadLog open(Path directory, DurabilityMode durabilityMode) throws IOException {
+        return new OrderWriteAheadLog(new SegmentedLog(directory, "orders", DEFAULT_SEGMENT_SIZE,
+                durabilityMode, DEFAULT_FLUSH_INTERVAL_MILLIS));
+    }
+
+    public long appendCreated(Order order) {
+        return log.append(encode(ORDER_CREATED, order));
+    }
+
+    public long appendStatusChange(Order order) {
+        return log.append(encode(STATUS_CHANGED, order));
+    }
+
+    // Blocks until earlier appends are durable (group commit in PER_BATCH mode)
+    public void sync() {
+        log.sync();
+    }
+
+    // Applies every record from the given LSN onto the store and returns the record count
+    public long replay(long fromLsn, OrderStore orders) {
+        try {
+            return log.read(fromLsn, (lsn, payload) -> apply(payload, orders));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay order log", e);
+        }
+    }
+
+    public SegmentedLog getLog() {
+        return log;
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    private static void apply(ByteBuffer payload, OrderStore orders) throws IOException {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        byte type = in.readByte();
+        if (type == ORDER_CREATED) {
+            Order order = BinaryCodec.readOrder(in);
+            orders.put(order);
+        } else if (type == STATUS_CHANGED) {
+            Order order = orders.get(in.readLong());
+            if (order != null) {
+                BinaryCodec.readOrderState(in, order);
+                orders.update(order);
+            }
+        } else {
+            throw new IOException("Unknown order log record type: " + type);
+        }
+    }
+
+    private static byte[] encode(byte type, Order order) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(type == ORDER_CREATED ? 256 : 64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type);
+            if (type == ORDER_CREATED) {
+                BinaryCodec.writeOrder(out, order);
+            } else {
+                out.writeLong(order.getId());
+                BinaryCodec.writeOrderState(out, order);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
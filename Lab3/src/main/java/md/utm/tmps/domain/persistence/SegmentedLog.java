@@ -0,0 +1,383 @@
+package md.utm.tmps.domain.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Append-only log split into fixed-size memory-mapped segment files
+// Records are [length][crc32c][payload]; a record's position (LSN) is
+// segmentIndex * segmentSize + offset, so LSNs increase monotonically across segments.
+// Appends are serialized by a short lock that only copies bytes into the mapping;
+// forcing to disk follows the configured DurabilityMode and uses group commit.
+public class SegmentedLog implements Closeable {
+    private static final int HEADER_SIZE = 8;
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final DurabilityMode durabilityMode;
+    private final NavigableMap<Long, Segment> segments;
+    private final ReentrantLock appendLock;
+    private final Object flushMonitor;
+    private final ScheduledExecutorService flusher;
+    private Segment active;
+    private volatile long writtenLsn;
+    private long durableLsn;
+    private boolean flushing;
+    private volatile boolean closed;
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void handle(long lsn, ByteBuffer payload) throws IOException;
+    }
+
+    private static final class Segment {
+        private final long index;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private int forcedPosition;
+
+        private Segment(long index, Path path, MappedByteBuffer buffer) {
+            this.index = index;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    public SegmentedLog(Path directory, String prefix, int segmentSize,
+                        DurabilityMode durabilityMode, long flushIntervalMillis) throws IOException {
+        if (segmentSize <= HEADER_SIZE * 2) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+        this.durabilityMode = durabilityMode;
+        this.segments = new ConcurrentSkipListMap<>();
+        this.appendLock = new ReentrantLock();
+        this.flushMonitor = new Object();
+
+        Files.createDirectories(directory);
+        openExistingSegments();
+        if (segments.isEmpty()) {
+            active = mapSegment(0);
+            segments.put(0L, active);
+        } else {
+            active = segments.lastEntry().getValue();
+            recoverTail(active);
+        }
+        writtenLsn = lsnOf(active, active.position);
+        durableLsn = writtenLsn;
+
+        if (durabilityMode == DurabilityMode.TIMER) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, prefix + "-log-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly,
+                    flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    // Appends one record and returns its LSN. In PER_WRITE mode the record is on disk
+    // when this returns; otherwise call sync() (PER_BATCH) or rely on the timer.
+    public long append(byte[] payload) {
+        if (payload.length == 0) {
+            throw new IllegalArgumentException("Empty log records are not allowed");
+        }
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes exceeds segment size");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        appendLock.lock();
+        try {
+            ensureOpen();
+            if (active.position + recordSize > segmentSize - HEADER_SIZE) {
+                rollLocked();
+            }
+            int offset = active.position;
+            MappedByteBuffer buffer = active.buffer;
+            buffer.putInt(offset + 4, (int) crc.getValue());
+            buffer.put(offset + HEADER_SIZE, payload);
+            buffer.putInt(offset, payload.length);
+            active.position = offset + recordSize;
+            writtenLsn = lsnOf(active, active.position);
+            if (durabilityMode == DurabilityMode.PER_WRITE) {
+                buffer.force(offset, recordSize);
+                active.forcedPosition = active.position;
+            }
+            return lsnOf(active, offset);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Group commit: the first waiting writer forces everything appended so far,
+    // every writer that arrived meanwhile is released by that same force
+    public void sync() {
+        if (durabilityMode != DurabilityMode.PER_BATCH) {
+            return;
+        }
+        long target = writtenLsn;
+        while (true) {
+            synchronized (flushMonitor) {
+                boolean interrupted = false;
+                while (flushing && durableLsn < target) {
+                    try {
+                        flushMonitor.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                if (durableLsn >= target) {
+                    return;
+                }
+                flushing = true;
+            }
+            flushAsLeader();
+        }
+    }
+
+    // Starts a new segment and returns its first LSN; everything before it is forced
+    public long roll() {
+        appendLock.lock();
+        try {
+            ensureOpen();
+            rollLocked();
+            return lsnOf(active, 0);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Reads every complete record from the given LSN up to the end written so far
+    public long read(long fromLsn, RecordHandler handler) throws IOException {
+        long limit = writtenLsn;
+        long count = 0;
+        for (Segment segment : segments.tailMap(fromLsn / segmentSize, true).values()) {
+            ByteBuffer buffer = segment.buffer.duplicate();
+            int offset = segment.index == fromLsn / segmentSize ? (int) (fromLsn % segmentSize) : 0;
+            while (offset + HEADER_SIZE <= segmentSize && lsnOf(segment, offset) < limit) {
+                int length = buffer.getInt(offset);
+                if (length <= 0 || offset + HEADER_SIZE + length > segmentSize) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(offset + HEADER_SIZE, length);
+                if (!checksumMatches(payload, buffer.getInt(offset + 4))) {
+                    break;
+                }
+                handler.handle(lsnOf(segment, offset), payload.asReadOnlyBuffer());
+                offset += HEADER_SIZE + length;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Removes whole segments that end at or before the given LSN (never the active one)
+    public int deleteSegmentsBefore(long lsn) throws IOException {
+        List<Segment> obsolete = new ArrayList<>();
+        appendLock.lock();
+        try {
+            for (Map.Entry<Long, Segment> entry : segments.headMap(active.index, false).entrySet()) {
+                if ((entry.getKey() + 1) * segmentSize <= lsn) {
+                    obsolete.add(entry.getValue());
+                }
+            }
+            obsolete.forEach(segment -> segments.remove(segment.index));
+        } finally {
+            appendLock.unlock();
+        }
+        for (Segment segment : obsolete) {
+            Files.deleteIfExists(segment.path);
+        }
+        return obsolete.size();
+    }
+
+    // LSN right after the record handed to a RecordHandler - where a reader resumes
+    // Uses the payload's limit, so it is still right after the payload has been consumed
+    public static long nextLsn(long lsn, ByteBuffer payload) {
+        return lsn + HEADER_SIZE + payload.limit();
+    }
+
+    public long getWrittenLsn() {
+        return writtenLsn;
+    }
+
+    public long getDurableLsn() {
+        synchronized (flushMonitor) {
+            return durableLsn;
+        }
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public DurabilityMode getDurabilityMode() {
+        return durabilityMode;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        appendLock.lock();
+        try {
+            closed = true;
+            active.buffer.force();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        synchronized (flushMonitor) {
+            if (flushing) {
+                return;
+            }
+            flushing = true;
+        }
+        flushAsLeader();
+    }
+
+    // Called with flushing == true; forces the unforced tail of the active segment
+    private void flushAsLeader() {
+        long flushedTo = -1;
+        try {
+            Segment segment;
+            int from;
+            int to;
+            appendLock.lock();
+            try {
+                segment = active;
+                from = segment.forcedPosition;
+                to = segment.position;
+            } finally {
+                appendLock.unlock();
+            }
+            if (to > from) {
+                segment.buffer.force(from, to - from);
+            }
+            appendLock.lock();
+            try {
+                segment.forcedPosition = Math.max(segment.forcedPosition, to);
+            } finally {
+                appendLock.unlock();
+            }
+            flushedTo = lsnOf(segment, to);
+        } finally {
+            synchronized (flushMonitor) {
+                flushing = false;
+                durableLsn = Math.max(durableLsn, flushedTo);
+                flushMonitor.notifyAll();
+            }
+        }
+    }
+
+    private void rollLocked() {
+        active.buffer.force();
+        active.forcedPosition = active.position;
+        try {
+            Segment next = mapSegment(active.index + 1);
+            segments.put(next.index, next);
+            active = next;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create log segment", e);
+        }
+        writtenLsn = lsnOf(active, 0);
+    }
+
+    private void openExistingSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(prefix + "-") && name.endsWith(SUFFIX)) {
+                    long index = Long.parseLong(name.substring(prefix.length() + 1, name.length() - SUFFIX.length()));
+                    Segment segment = mapSegment(index);
+                    segment.position = segmentSize;
+                    segment.forcedPosition = segmentSize;
+                    segments.put(index, segment);
+                }
+            }
+        }
+    }
+
+    // Finds the end of the last valid record and clears anything after it,
+    // so a torn write can never be followed by stale but valid-looking records
+    private void recoverTail(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = 0;
+        while (offset + HEADER_SIZE <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_SIZE + length > segmentSize
+                    || !checksumMatches(buffer.slice(offset + HEADER_SIZE, length), buffer.getInt(offset + 4))) {
+                break;
+            }
+            offset += HEADER_SIZE + length;
+        }
+        byte[] zeros = new byte[4096];
+        for (int i = offset; i < segmentSize; i += zeros.length) {
+            buffer.put(i, zeros, 0, Math.min(zeros.length, segmentSize - i));
+        }
+        buffer.force();
+        segment.position = offset;
+        segment.forcedPosition = offset;
+    }
+
+    private Segment mapSegment(long index) throws IOException {
+        Path path = directory.resolve(String.format("%s-%010d%s", prefix, index, SUFFIX));
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new Segment(index, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        }
+    }
+
+    private static boolean checksumMatches(ByteBuffer payload, int expected) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue() == expected;
+    }
+
+    private long lsnOf(Segment segment, int offset) {
+        return segment.index * segmentSize + offset;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Log is closed");
+        }
+    }
+}
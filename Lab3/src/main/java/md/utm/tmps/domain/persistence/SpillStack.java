@@ -0,0 +1,109 @@
+package md.utm.tmps.domain.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Last-in-first-out stack of byte records kept in a single file
+// Records are [payload][length], so the newest one is always found from the end of the file;
+// pop() reads it and truncates the file, so the file never holds more than the live records.
+// Not thread-safe - callers serialize access. The file is scratch space and is deleted on close.
+public class SpillStack implements Closeable {
+    private static final int TRAILER_SIZE = Integer.BYTES;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer trailer;
+    private int count;
+
+    public SpillStack(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.trailer = ByteBuffer.allocate(TRAILER_SIZE);
+    }
+
+    public void push(byte[] record) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(record.length + TRAILER_SIZE);
+            buffer.put(record).putInt(record.length).flip();
+            long position = channel.size();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill record to " + file, e);
+        }
+    }
+
+    // Newest record, or null when the stack is empty
+    public byte[] pop() {
+        if (count == 0) {
+            return null;
+        }
+        try {
+            long end = channel.size();
+            readFully(trailer.clear(), end - TRAILER_SIZE);
+            int length = trailer.flip().getInt();
+            long start = end - TRAILER_SIZE - length;
+            ByteBuffer record = ByteBuffer.allocate(length);
+            readFully(record, start);
+            channel.truncate(start);
+            count--;
+            return record.array();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read spilled record from " + file, e);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long sizeInBytes() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void clear() {
+        try {
+            channel.truncate(0);
+            count = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not clear " + file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close " + file, e);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of " + file);
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package md.utm.tmps.domain.persistence;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Dictionary encoding for repeated strings: each distinct value is stored once
+// and referenced by an int code. Code -1 stands for null.
+public class StringDictionary {
+    public static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes;
+    private volatile String[] values;
+    private int size;
+
+    public StringDictionary() {
+        this.codes = new ConcurrentHashMap<>();
+        this.values = new String[64];
+    }
+
+    public int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+
+    public String decode(int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    private synchronized int add(String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        int code = size++;
+        codes.put(value, code); // published after the array slot is written
+        return code;
+    }
+}
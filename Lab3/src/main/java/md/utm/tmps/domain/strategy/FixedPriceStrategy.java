@@ -0,0 +1,36 @@
+package md.utm.tmps.domain.strategy;
+
+import md.utm.tmps.domain.models.Order;
+
+// Strategy Pattern
+// Concrete Strategy - applies a price that was already decided
+// Used when replaying a command journal: the original strategy may depend on the date
+// or on promotions that have since ended, so the recorded outcome is applied as-is
+// under the original strategy name and discount description.
+public class FixedPriceStrategy implements PricingStrategy {
+    private final double finalPrice;
+    private final String strategyName;
+    private final String discountDescription;
+
+    public FixedPriceStrategy(double finalPrice, String strategyName, String discountDescription) {
+        this.finalPrice = finalPrice;
+        this.strategyName = strategyName;
+        this.discountDescription = discountDescription;
+    }
+
+    @Override
+    public double calculatePrice(Order order) {
+        System.out.printf("   💰 Fixed Price: $%.2f (%s)\n", finalPrice, strategyName);
+        return finalPrice;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    @Override
+    public String getDiscountDescription() {
+        return discountDescription;
+    }
+}
@@ -33,6 +33,7 @@ public class PricingContext {
         double finalPrice = strategy.calculatePrice(order);
         order.setFinalPrice(finalPrice);
         order.setDiscountApplied(strategy.getDiscountDescription());
+        order.setPricingStrategy(strategy.getStrategyName());
 
         return finalPrice;
     }
@@ -0,0 +1,6 @@
+package md.utm.tmps.utilities;
+
+// Source of unique 64-bit identifiers
+public interface IdGenerator {
+    long nextId();
+}
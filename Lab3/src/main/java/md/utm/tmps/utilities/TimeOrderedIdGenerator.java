@@ -0,0 +1,73 @@
+package md.utm.tmps.utilities;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Time-ordered 64-bit ids: [41 bits millis since 2025-01-01][6 bits node][6 bits slot][10 bits sequence]
+// Each thread is pinned to one of 64 slots with its own timestamp/sequence word, so threads
+// only contend when they share a slot, and even then a CAS keeps ids unique. Ids from one
+// thread are strictly increasing; when a slot exhausts its 1024 ids for a millisecond it
+// borrows the next millisecond instead of spinning, and a clock going backwards is ignored.
+// The labs build separately, so Lab2 carries an identical copy of this class
+// (Lab2/src/main/java/md/utm/tmps/utilities/TimeOrderedIdGenerator.java); change both together.
+public class TimeOrderedIdGenerator implements IdGenerator {
+    private static final long EPOCH_MILLIS = 1735689600000L; // 2025-01-01T00:00:00Z
+    private static final int SEQUENCE_BITS = 10;
+    private static final int SLOT_BITS = 6;
+    private static final int NODE_BITS = 6;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int PADDING = 8; // one slot word per 64-byte cache line
+
+    private static final TimeOrderedIdGenerator DEFAULT = new TimeOrderedIdGenerator(0);
+
+    private final long nodeBits;
+    private final AtomicLongArray slotStates;
+    private final AtomicInteger nextSlot;
+    private final ThreadLocal<Integer> threadSlot;
+
+    public TimeOrderedIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId >= (1 << NODE_BITS)) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + ((1 << NODE_BITS) - 1));
+        }
+        this.nodeBits = (long) nodeId << (SLOT_BITS + SEQUENCE_BITS);
+        this.slotStates = new AtomicLongArray(SLOTS * PADDING);
+        this.nextSlot = new AtomicInteger();
+        this.threadSlot = ThreadLocal.withInitial(() -> nextSlot.getAndIncrement() & (SLOTS - 1));
+    }
+
+    public static TimeOrderedIdGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    @Override
+    public long nextId() {
+        int slot = threadSlot.get();
+        int index = slot * PADDING;
+        while (true) {
+            long state = slotStates.get(index);
+            long lastMillis = state >>> SEQUENCE_BITS;
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            long next;
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((state & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = state + 1;
+            } else {
+                next = (lastMillis + 1) << SEQUENCE_BITS;
+            }
+            if (slotStates.compareAndSet(index, state, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return (millis << (NODE_BITS + SLOT_BITS + SEQUENCE_BITS))
+                        | nodeBits
+                        | ((long) slot << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // Epoch millis encoded in an id
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SLOT_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+}
@@ -0,0 +1,129 @@
+package md.utm.tmps.benchmark;
+
+import md.utm.tmps.domain.analytics.PopularityTracker;
+import md.utm.tmps.domain.models.ComputerFactory;
+import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.observer.AnalyticsObserver;
+import md.utm.tmps.domain.observer.OrderEvent;
+import md.utm.tmps.domain.observer.OrderEventType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// user-011: update throughput of the analytics counters from 1 to N threads
+// - striped:      the AnalyticsObserver scheme (LongAdders, cents, concurrent popularity tracker)
+// - synchronized: the same updates on plain fields and a HashMap behind one lock
+// - observer:     AnalyticsObserver.onEvent end to end, including its (muted) console line,
+//                 which formats and takes the PrintStream lock on every event
+// Each operation is one event: created (+ product), delivered (+ revenue) or cancelled in turn.
+// Args: [events per thread = 2_000_000] [max threads = 2 x available processors]
+public final class AnalyticsCounterBenchmark {
+    private static final String[] COMPUTER_TYPES = {"gaming", "workstation", "budget", "office"};
+
+    public static void main(String[] args) throws InterruptedException {
+        int eventsPerThread = BenchmarkSupport.intArg(args, 0, 2_000_000);
+        int maxThreads = BenchmarkSupport.intArg(args, 1, 2 * Runtime.getRuntime().availableProcessors());
+        OrderEvent[] events = sampleEvents();
+
+        BenchmarkSupport.report("Analytics counters: %,d events per thread, %s", eventsPerThread, BenchmarkSupport.cpuLine());
+        BenchmarkSupport.report("%8s %16s %16s %16s", "threads", "striped/s", "synchronized/s", "observer/s");
+        BenchmarkSupport.mute();
+        try {
+            // Warm-up run, not reported
+            measure(1, eventsPerThread, events);
+            for (int threads : BenchmarkSupport.threadCounts(maxThreads)) {
+                double[] rates = measure(threads, eventsPerThread, events);
+                BenchmarkSupport.unmute();
+                BenchmarkSupport.report("%8d %16.0f %16.0f %16.0f", threads, rates[0], rates[1], rates[2]);
+                BenchmarkSupport.mute();
+            }
+        } finally {
+            BenchmarkSupport.unmute();
+        }
+    }
+
+    private static double[] measure(int threads, int eventsPerThread, OrderEvent[] events)
+            throws InterruptedException {
+        long total = (long) threads * eventsPerThread;
+        StripedCounters striped = new StripedCounters();
+        double stripedRate = BenchmarkSupport.perSecond(total, BenchmarkSupport.runConcurrently(threads, index -> {
+            for (int i = 0; i < eventsPerThread; i++) {
+                striped.record(events[(i + index) % events.length]);
+            }
+        }));
+        SynchronizedCounters locked = new SynchronizedCounters();
+        double lockedRate = BenchmarkSupport.perSecond(total, BenchmarkSupport.runConcurrently(threads, index -> {
+            for (int i = 0; i < eventsPerThread; i++) {
+                locked.record(events[(i + index) % events.length]);
+            }
+        }));
+        // The observer path is far slower; a tenth of the events keeps the run short
+        int observerEvents = Math.max(1, eventsPerThread / 10);
+        AnalyticsObserver observer = new AnalyticsObserver();
+        double observerRate = BenchmarkSupport.perSecond((long) threads * observerEvents,
+                BenchmarkSupport.runConcurrently(threads, index -> {
+                    for (int i = 0; i < observerEvents; i++) {
+                        observer.onEvent(events[(i + index) % events.length]);
+                    }
+                }));
+        return new double[] {stripedRate, lockedRate, observerRate};
+    }
+
+    private static OrderEvent[] sampleEvents() {
+        OrderEventType[] types = {OrderEventType.ORDER_CREATED, OrderEventType.ORDER_DELIVERED, OrderEventType.ORDER_CANCELLED};
+        OrderEvent[] events = new OrderEvent[3 * COMPUTER_TYPES.length * 16];
+        for (int i = 0; i < events.length; i++) {
+            Order order = new Order("customer-" + i, "c" + i + "@shop.md",
+                    ComputerFactory.createByType(COMPUTER_TYPES[i % COMPUTER_TYPES.length]));
+            order.setFinalPrice(500 + i * 12.35);
+            events[i] = OrderEvent.of(i, types[i % types.length], order);
+        }
+        return events;
+    }
+
+    // Mirrors the AnalyticsObserver counters
+    private static final class StripedCounters {
+        private final LongAdder created = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder cancelled = new LongAdder();
+        private final LongAdder revenueCents = new LongAdder();
+        private final PopularityTracker popularity = PopularityTracker.exact();
+
+        void record(OrderEvent event) {
+            switch (event.type()) {
+                case ORDER_CREATED -> {
+                    created.increment();
+                    popularity.record(event.computerName(), 1);
+                }
+                case ORDER_DELIVERED -> {
+                    completed.increment();
+                    revenueCents.add(Math.round(event.finalPrice() * 100));
+                }
+                default -> cancelled.increment();
+            }
+        }
+    }
+
+    // The pre-change shape, made thread-safe the simple way
+    private static final class SynchronizedCounters {
+        private long created;
+        private long completed;
+        private long cancelled;
+        private long revenueCents;
+        private final Map<String, Long> popularity = new HashMap<>();
+
+        synchronized void record(OrderEvent event) {
+            switch (event.type()) {
+                case ORDER_CREATED -> {
+                    created++;
+                    popularity.merge(event.computerName(), 1L, Long::sum);
+                }
+                case ORDER_DELIVERED -> {
+                    completed++;
+                    revenueCents += Math.round(event.finalPrice() * 100);
+                }
+                default -> cancelled++;
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package md.utm.tmps.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+// Shared plumbing for the benchmark harnesses in this package
+// The harnesses are plain main() programs (not picked up by surefire), run with:
+//   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=md.utm.tmps.benchmark.<Name> -Dexec.args="<sizes>"
+// The domain classes print a line per event, so stdout is muted while a measurement runs
+// and results go to the real stdout captured here.
+final class BenchmarkSupport {
+    private static final PrintStream RESULTS = System.out;
+    private static final PrintStream MUTED = new PrintStream(OutputStream.nullOutputStream());
+
+    private BenchmarkSupport() {
+    }
+
+    static void report(String format, Object... args) {
+        RESULTS.printf(format + "%n", args);
+    }
+
+    static void mute() {
+        System.setOut(MUTED);
+    }
+
+    static void unmute() {
+        System.setOut(RESULTS);
+    }
+
+    static int intArg(String[] args, int index, int fallback) {
+        return args.length > index ? Integer.parseInt(args[index].replace("_", "")) : fallback;
+    }
+
+    // 1, 2, 4, ... up to max (max itself always included)
+    static List<Integer> threadCounts(int max) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < max; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(max);
+        return counts;
+    }
+
+    // Runs body(threadIndex) on that many threads released together; returns elapsed nanos
+    static long runConcurrently(int threads, IntConsumer body) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    body.accept(index);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "bench-" + t);
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    // Bytes allocated by the calling thread so far (HotSpot only, -1 elsewhere)
+    static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    // Bytes allocated by every live thread so far (HotSpot only, -1 elsewhere)
+    static long allocatedBytesAllThreads() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)) {
+            return -1;
+        }
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(0, bytes);
+        }
+        return total;
+    }
+
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    static double perSecond(long operations, long nanos) {
+        return operations * 1e9 / Math.max(1, nanos);
+    }
+
+    static String cpuLine() {
+        return String.format("%d available processors, %s %s", Runtime.getRuntime().availableProcessors(),
+                System.getProperty("java.vm.name"), System.getProperty("java.version"));
+    }
+
+    // Bytes of every file under the directory
+    static long sizeOf(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package md.utm.tmps.benchmark;
+
+import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.utilities.TimeOrderedIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// user-008: JMH comparison of the old UUID-based order id against the time-ordered generator,
+// both as the raw primitive id and rendered to "ORD-..." the way Order does lazily
+// JMH forks its own JVMs, so run it through exec:exec (exec:java hides the test classpath):
+//   mvn -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//       -Dexec.args="-cp %classpath md.utm.tmps.benchmark.IdGenerationBenchmark 4"
+// Args: [threads = available processors]
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGenerationBenchmark {
+    private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(0);
+
+    // What Order did before: SecureRandom UUID, cut to 32 bits of randomness
+    @Benchmark
+    public String uuidPath() {
+        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    @Benchmark
+    public long timeOrderedId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String timeOrderedIdRendered() {
+        return Order.formatId(generator.nextId());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int threads = BenchmarkSupport.intArg(args, 0, Runtime.getRuntime().availableProcessors());
+        new Runner(new OptionsBuilder()
+                .include(IdGenerationBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build()).run();
+    }
+}
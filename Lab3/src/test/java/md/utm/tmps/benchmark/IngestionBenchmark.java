@@ -0,0 +1,84 @@
+package md.utm.tmps.benchmark;
+
+import md.utm.tmps.domain.models.Computer;
+import md.utm.tmps.domain.models.ComputerFactory;
+import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.models.OrderRequest;
+import md.utm.tmps.domain.observer.AnalyticsObserver;
+import md.utm.tmps.domain.observer.InventoryObserver;
+import md.utm.tmps.domain.observer.OrderManager;
+import java.util.ArrayList;
+import java.util.List;
+
+// user-004: importing orders one by one (createOrder + confirmOrder per order) versus the
+// bulk entry points (createOrders + confirmOrders per chunk, one batched delivery per observer)
+// Analytics and inventory observers are registered, as in the shop.
+// Args: [order counts = 10_000 1_000_000]; the batch chunk size is fixed at CHUNK.
+// 1M orders stays resident per run, so give it a few GB (e.g. MAVEN_OPTS=-Xmx3g)
+public final class IngestionBenchmark {
+    private static final int CHUNK = 10_000;
+
+    public static void main(String[] args) {
+        List<Integer> sizes = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            sizes.add(BenchmarkSupport.intArg(args, i, 0));
+        }
+        if (sizes.isEmpty()) {
+            sizes = List.of(10_000, 1_000_000);
+        }
+        Computer computer = ComputerFactory.createOfficePC();
+
+        BenchmarkSupport.report("Ingestion: per-order vs batched (chunks of %,d), %s", CHUNK, BenchmarkSupport.cpuLine());
+        BenchmarkSupport.report("%10s %16s %16s %10s", "orders", "per-order/s", "batched/s", "speedup");
+        BenchmarkSupport.mute();
+        try {
+            // Warm-up run, not reported
+            perOrder(computer, CHUNK);
+            batched(computer, CHUNK);
+            for (int orders : sizes) {
+                double single = BenchmarkSupport.perSecond(orders, perOrder(computer, orders));
+                double batch = BenchmarkSupport.perSecond(orders, batched(computer, orders));
+                BenchmarkSupport.unmute();
+                BenchmarkSupport.report("%,10d %16.0f %16.0f %9.2fx", orders, single, batch, batch / single);
+                BenchmarkSupport.mute();
+            }
+        } finally {
+            BenchmarkSupport.unmute();
+        }
+    }
+
+    private static OrderManager newManager() {
+        OrderManager manager = new OrderManager();
+        manager.registerObserver(new InventoryObserver());
+        manager.registerObserver(new AnalyticsObserver());
+        return manager;
+    }
+
+    private static long perOrder(Computer computer, int orders) {
+        OrderManager manager = newManager();
+        long begin = System.nanoTime();
+        for (int i = 0; i < orders; i++) {
+            Order order = manager.createOrder("customer-" + i, "c" + i + "@shop.md", computer);
+            manager.confirmOrder(order.getOrderId());
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static long batched(Computer computer, int orders) {
+        OrderManager manager = newManager();
+        long begin = System.nanoTime();
+        for (int from = 0; from < orders; from += CHUNK) {
+            int to = Math.min(orders, from + CHUNK);
+            List<OrderRequest> requests = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                requests.add(new OrderRequest("customer-" + i, "c" + i + "@shop.md", computer));
+            }
+            List<String> ids = new ArrayList<>(requests.size());
+            for (Order order : manager.createOrders(requests)) {
+                ids.add(order.getOrderId());
+            }
+            manager.confirmOrders(ids);
+        }
+        return System.nanoTime() - begin;
+    }
+}
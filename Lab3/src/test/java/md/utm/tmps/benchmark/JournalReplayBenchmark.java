@@ -0,0 +1,86 @@
+package md.utm.tmps.benchmark;
+
+import md.utm.tmps.domain.command.CommandJournal;
+import md.utm.tmps.domain.command.OrderCommand;
+import md.utm.tmps.domain.command.OrderCommandInvoker;
+import md.utm.tmps.domain.command.PlaceOrderCommand;
+import md.utm.tmps.domain.command.UpdateOrderStatusCommand;
+import md.utm.tmps.domain.models.Computer;
+import md.utm.tmps.domain.models.ComputerFactory;
+import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.observer.OrderManager;
+import md.utm.tmps.domain.persistence.DurabilityMode;
+import md.utm.tmps.domain.strategy.PricingContext;
+import md.utm.tmps.domain.strategy.RegularPricingStrategy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// user-024: rebuilding an OrderManager by replaying a multi-million-entry command journal
+// The journal is written by running each order's lifecycle as commands (place, then process,
+// ship and deliver: four entries per order) and journaling them as the invoker does. It is then
+// replayed twice into fresh managers; the first pass warms up and is not reported.
+// Args: [journal entries = 2_000_000]; 2M entries needs a larger heap (e.g. MAVEN_OPTS=-Xmx3g)
+public final class JournalReplayBenchmark {
+    private static final int ENTRIES_PER_ORDER = 4;
+    private static final Order.OrderStatus[] LIFECYCLE = {
+            Order.OrderStatus.PROCESSING, Order.OrderStatus.SHIPPED, Order.OrderStatus.DELIVERED
+    };
+
+    public static void main(String[] args) throws IOException {
+        int entries = BenchmarkSupport.intArg(args, 0, 2_000_000);
+        int orders = Math.max(1, entries / ENTRIES_PER_ORDER);
+        Computer computer = ComputerFactory.createOfficePC();
+
+        BenchmarkSupport.report("Journal replay: %,d orders, %s", orders, BenchmarkSupport.cpuLine());
+        BenchmarkSupport.report("%12s %12s %14s %12s %14s", "entries", "journal MB", "write ms", "replay ms",
+                "commands/s");
+        BenchmarkSupport.mute();
+        Path directory = Files.createTempDirectory("journal-bench");
+        try (CommandJournal journal = CommandJournal.open(directory, DurabilityMode.TIMER)) {
+            long begin = System.nanoTime();
+            write(journal, orders, computer);
+            journal.sync();
+            long writeNanos = System.nanoTime() - begin;
+
+            OrderCommandInvoker invoker = new OrderCommandInvoker();
+            replay(invoker, journal);
+            BenchmarkSupport.usedHeap(); // start from a collected heap
+            begin = System.nanoTime();
+            long replayed = replay(invoker, journal);
+            long replayNanos = System.nanoTime() - begin;
+
+            BenchmarkSupport.unmute();
+            BenchmarkSupport.report("%,12d %12.1f %14d %12d %14.0f", replayed,
+                    BenchmarkSupport.sizeOf(directory) / 1e6, writeNanos / 1_000_000, replayNanos / 1_000_000,
+                    BenchmarkSupport.perSecond(replayed, replayNanos));
+        } finally {
+            BenchmarkSupport.unmute();
+            BenchmarkSupport.deleteRecursively(directory);
+        }
+    }
+
+    // The live manager is dropped afterwards, so only the rebuilt one is on the heap during replay
+    private static void write(CommandJournal journal, int orders, Computer computer) {
+        OrderManager live = new OrderManager();
+        PricingContext pricing = new PricingContext(new RegularPricingStrategy());
+        for (int i = 0; i < orders; i++) {
+            PlaceOrderCommand place = new PlaceOrderCommand(live, "customer-" + i, "c" + i + "@shop.md",
+                    computer, pricing);
+            run(journal, place);
+            String orderId = place.getCreatedOrder().getOrderId();
+            for (Order.OrderStatus status : LIFECYCLE) {
+                run(journal, new UpdateOrderStatusCommand(live, orderId, status));
+            }
+        }
+    }
+
+    private static void run(CommandJournal journal, OrderCommand command) {
+        command.execute();
+        journal.recordExecuted(command);
+    }
+
+    private static long replay(OrderCommandInvoker invoker, CommandJournal journal) {
+        return invoker.replay(journal, new OrderManager());
+    }
+}
@@ -0,0 +1,144 @@
+package md.utm.tmps.benchmark;
+
+import md.utm.tmps.domain.models.ComputerFactory;
+import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.notification.ConsoleNotificationSender;
+import md.utm.tmps.domain.notification.Notification;
+import md.utm.tmps.domain.observer.CustomerNotificationObserver;
+import md.utm.tmps.domain.observer.OrderEvent;
+import md.utm.tmps.domain.observer.OrderEventType;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+// user-016: customer notification throughput and allocation per event
+// - format:    the pre-change path, String.format per event type and println
+// - templates: CustomerNotificationObserver without a window (precompiled templates, sent at once)
+// - coalesced: the same observer with a coalescing window; an order's lifecycle arrives
+//              back to back, so most updates merge into one message before sending
+// Every path prints to the (muted) console, so the sink cost is the same for all three.
+// Allocation for the coalesced path includes the outbox thread.
+// Args: [orders = 200_000] [coalescing window ms = 20]
+public final class NotificationBenchmark {
+    private static final String[] COMPUTER_TYPES = {"gaming", "workstation", "budget", "office"};
+    private static final OrderEventType[] LIFECYCLE = {OrderEventType.ORDER_CREATED, OrderEventType.ORDER_CONFIRMED,
+            OrderEventType.ORDER_PROCESSING, OrderEventType.ORDER_SHIPPED, OrderEventType.ORDER_DELIVERED};
+
+    public static void main(String[] args) {
+        int orders = BenchmarkSupport.intArg(args, 0, 200_000);
+        Duration window = Duration.ofMillis(BenchmarkSupport.intArg(args, 1, 20));
+        OrderEvent[] events = lifecycleEvents(orders);
+
+        BenchmarkSupport.report("Notifications: %,d orders, %,d events, %s", orders, events.length, BenchmarkSupport.cpuLine());
+        BenchmarkSupport.report("%10s %14s %14s %14s %10s", "path", "events/s", "messages/s", "bytes/event", "messages");
+        BenchmarkSupport.mute();
+        try {
+            // Warm-up round, not reported
+            measureAll(events, window, false);
+            measureAll(events, window, true);
+        } finally {
+            BenchmarkSupport.unmute();
+        }
+    }
+
+    private static void measureAll(OrderEvent[] events, Duration window, boolean print) {
+        Result format = measureFormat(events);
+        Result templates = measureObserver(events, Duration.ZERO);
+        Result coalesced = measureObserver(events, window);
+        if (print) {
+            BenchmarkSupport.unmute();
+            print("format", events.length, format);
+            print("templates", events.length, templates);
+            print("coalesced", events.length, coalesced);
+            BenchmarkSupport.mute();
+        }
+    }
+
+    private static Result measureFormat(OrderEvent[] events) {
+        long bytesBefore = BenchmarkSupport.allocatedBytes();
+        long begin = System.nanoTime();
+        for (OrderEvent event : events) {
+            System.out.println("   " + formatMessage(event));
+        }
+        long nanos = System.nanoTime() - begin;
+        return new Result(nanos, events.length, BenchmarkSupport.allocatedBytes() - bytesBefore);
+    }
+
+    private static Result measureObserver(OrderEvent[] events, Duration window) {
+        CountingSender sender = new CountingSender();
+        CustomerNotificationObserver observer = new CustomerNotificationObserver(window, sender);
+        long bytesBefore = BenchmarkSupport.allocatedBytesAllThreads();
+        long begin = System.nanoTime();
+        for (OrderEvent event : events) {
+            observer.onEvent(event);
+        }
+        // Messages still held by the outbox count towards the run
+        observer.flush();
+        long nanos = System.nanoTime() - begin;
+        long bytes = BenchmarkSupport.allocatedBytesAllThreads() - bytesBefore;
+        observer.close();
+        return new Result(nanos, sender.sent.sum(), bytes);
+    }
+
+    private static void print(String path, int events, Result result) {
+        BenchmarkSupport.report("%10s %14.0f %14.0f %14.1f %10d", path,
+                BenchmarkSupport.perSecond(events, result.nanos()),
+                BenchmarkSupport.perSecond(result.messages(), result.nanos()),
+                (double) result.bytes() / events, result.messages());
+    }
+
+    // The switch the observer used before templates
+    private static String formatMessage(OrderEvent event) {
+        return switch (event.type()) {
+            case ORDER_CREATED -> String.format(
+                    "📧 Email to %s: Your order %s has been created! Total: $%.2f",
+                    event.customerEmail(), event.orderId(), event.finalPrice());
+            case ORDER_CONFIRMED -> String.format(
+                    "📧 Email to %s: Order %s confirmed! We're preparing your %s.",
+                    event.customerEmail(), event.orderId(), event.computerName());
+            case ORDER_PROCESSING -> String.format(
+                    "📧 Email to %s: Order %s is being assembled!",
+                    event.customerEmail(), event.orderId());
+            case ORDER_SHIPPED -> String.format(
+                    "📧 Email to %s: Order %s has been shipped! Track your delivery.",
+                    event.customerEmail(), event.orderId());
+            case ORDER_DELIVERED -> String.format(
+                    "📧 Email to %s: Order %s delivered! Enjoy your new %s!",
+                    event.customerEmail(), event.orderId(), event.computerName());
+            case ORDER_CANCELLED -> String.format(
+                    "📧 Email to %s: Order %s has been cancelled. Refund initiated.",
+                    event.customerEmail(), event.orderId());
+        };
+    }
+
+    // One order's full lifecycle after another, as a busy shop would emit them
+    private static OrderEvent[] lifecycleEvents(int orders) {
+        OrderEvent[] events = new OrderEvent[orders * LIFECYCLE.length];
+        int next = 0;
+        for (int i = 0; i < orders; i++) {
+            Order order = new Order("customer-" + i, "c" + i + "@shop.md",
+                    ComputerFactory.createByType(COMPUTER_TYPES[i % COMPUTER_TYPES.length]));
+            order.setFinalPrice(500 + (i % 1000) * 12.35);
+            for (OrderEventType type : LIFECYCLE) {
+                if (order.getStatus() != type.getStatus()) {
+                    order.setStatus(type.getStatus());
+                }
+                events[next] = OrderEvent.of(next, type, order);
+                next++;
+            }
+        }
+        return events;
+    }
+
+    private record Result(long nanos, long messages, long bytes) {
+    }
+
+    private static final class CountingSender extends ConsoleNotificationSender {
+        private final LongAdder sent = new LongAdder();
+
+        @Override
+        public void send(Notification notification) {
+            sent.increment();
+            super.send(notification);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package md.utm.tmps.benchmark;
+
+import md.utm.tmps.domain.analytics.PopularityTracker;
+import md.utm.tmps.domain.analytics.ProductCount;
+import java.lang.ref.Reference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+// user-013: exact popularity map vs the Space-Saving sketch on a synthetic Zipfian order stream
+// Every tracker sees the same seeded stream of product names drawn from a Zipf(skew) catalog.
+// Reported per tracker: retained heap (measured after GC, fed straight from the generator),
+// record throughput (a second run over a pre-generated stream), how many of the
+// true top-K it returns, the worst relative count error among them, and whether every reported
+// [count - maxError, count] range holds the true count.
+// Args: [orders = 2_000_000] [catalog size = 200_000] [skew x100 = 110] [top K = 10]
+public final class PopularityTopKBenchmark {
+    private static final long SEED = 42;
+    private static final int[] SKETCH_CAPACITIES = {64, 256, 1024};
+
+    public static void main(String[] args) {
+        int orders = BenchmarkSupport.intArg(args, 0, 2_000_000);
+        int catalog = BenchmarkSupport.intArg(args, 1, 200_000);
+        double skew = BenchmarkSupport.intArg(args, 2, 110) / 100.0;
+        int topK = BenchmarkSupport.intArg(args, 3, 10);
+        double[] cdf = zipfCdf(catalog, skew);
+
+        BenchmarkSupport.report("Popularity top-%d: %,d orders over %,d products, Zipf s=%.2f, %s",
+                topK, orders, catalog, skew, BenchmarkSupport.cpuLine());
+        BenchmarkSupport.report("%-22s %12s %14s %10s %12s %8s", "tracker", "heap KB", "records/s",
+                "recall", "max error", "bounds");
+
+        Map<String, Long> truth = new HashMap<>();
+        for (String product : new ZipfStream(cdf, orders)) {
+            truth.merge(product, 1L, Long::sum);
+        }
+        run("exact", PopularityTracker::exact, cdf, orders, topK, truth);
+        for (int capacity : SKETCH_CAPACITIES) {
+            run("space-saving(" + capacity + ")", () -> PopularityTracker.approximate(capacity), cdf, orders, topK, truth);
+        }
+    }
+
+    private static void run(String name, Supplier<PopularityTracker> factory, double[] cdf, int orders, int topK,
+                            Map<String, Long> truth) {
+        long nanos = timeRecording(factory.get(), new ZipfStream(cdf, orders).toList());
+
+        long before = BenchmarkSupport.usedHeap();
+        PopularityTracker tracker = factory.get();
+        for (String product : new ZipfStream(cdf, orders)) {
+            tracker.record(product, 1);
+        }
+        long heap = BenchmarkSupport.usedHeap() - before;
+
+        List<ProductCount> reported = tracker.topProducts(topK);
+        List<String> expected = truth.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(topK).map(Map.Entry::getKey).toList();
+        int hits = 0;
+        double maxError = 0;
+        boolean bounded = true;
+        for (ProductCount count : reported) {
+            long actual = truth.getOrDefault(count.product(), 0L);
+            if (expected.contains(count.product())) {
+                hits++;
+            }
+            maxError = Math.max(maxError, Math.abs(count.count() - actual) / (double) Math.max(1, actual));
+            bounded &= count.getGuaranteedCount() <= actual && actual <= count.count();
+        }
+        BenchmarkSupport.report("%-22s %12d %14.0f %7d/%-2d %11.2f%% %8s", name, heap / 1024,
+                BenchmarkSupport.perSecond(orders, nanos), hits, topK, maxError * 100, bounded ? "hold" : "BROKEN");
+        Reference.reachabilityFence(tracker);
+    }
+
+    private static long timeRecording(PopularityTracker tracker, List<String> stream) {
+        long begin = System.nanoTime();
+        for (String product : stream) {
+            tracker.record(product, 1);
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static double[] zipfCdf(int catalog, double skew) {
+        double[] cdf = new double[catalog];
+        double sum = 0;
+        for (int i = 0; i < catalog; i++) {
+            sum += 1 / Math.pow(i + 1, skew);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < catalog; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    // Seeded, so every tracker sees the same product sequence; names are fresh strings, as they
+    // would be when parsed from incoming orders
+    private record ZipfStream(double[] cdf, int orders) implements Iterable<String> {
+        @Override
+        public java.util.Iterator<String> iterator() {
+            Random random = new Random(SEED);
+            return new java.util.Iterator<>() {
+                private int emitted;
+
+                @Override
+                public boolean hasNext() {
+                    return emitted < orders;
+                }
+
+                @Override
+                public String next() {
+                    emitted++;
+                    int index = Arrays.binarySearch(cdf, random.nextDouble());
+                    return "Custom Build #" + (index < 0 ? -index - 1 : index);
+                }
+            };
+        }
+
+        List<String> toList() {
+            List<String> products = new java.util.ArrayList<>(orders);
+            forEach(products::add);
+            return products;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package md.utm.tmps.benchmark;
+
+import md.utm.tmps.domain.models.Computer;
+import md.utm.tmps.domain.models.ComputerFactory;
+import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.models.OrderRequest;
+import md.utm.tmps.domain.observer.OrderManager;
+import md.utm.tmps.domain.persistence.DurabilityMode;
+import md.utm.tmps.domain.persistence.OrderSnapshotStore;
+import md.utm.tmps.domain.persistence.OrderWriteAheadLog;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// user-006: OrderManager time-to-ready, replaying the whole write-ahead log versus loading the
+// latest snapshot and replaying only the tail written after it
+// Each size is driven through its whole lifecycle (create, confirm, process, ship, deliver:
+// five log records per order) in a temporary directory, then restarted twice: once from the
+// log alone, and once after a snapshot plus a tail cancelling 1% of fresh orders.
+// Args: [order counts = 1_000_000 10_000_000]; 10M orders needs a large heap
+//   (e.g. MAVEN_OPTS=-Xmx8g)
+public final class RestartBenchmark {
+    private static final int CHUNK = 10_000;
+    private static final int TAIL_PERCENT = 1;
+
+    public static void main(String[] args) throws IOException {
+        List<Integer> sizes = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            sizes.add(BenchmarkSupport.intArg(args, i, 0));
+        }
+        if (sizes.isEmpty()) {
+            sizes = List.of(1_000_000, 10_000_000);
+        }
+        Computer computer = ComputerFactory.createOfficePC();
+
+        BenchmarkSupport.report("Restart time-to-ready, %s", BenchmarkSupport.cpuLine());
+        BenchmarkSupport.report("%12s %14s %14s %18s %14s", "orders", "log MB", "log-only ms",
+                "snapshot+tail ms", "snapshot MB");
+        BenchmarkSupport.mute();
+        try {
+            for (int orders : sizes) {
+                Path directory = Files.createTempDirectory("restart-bench");
+                try {
+                    measure(directory, orders, computer);
+                } finally {
+                    BenchmarkSupport.deleteRecursively(directory);
+                }
+            }
+        } finally {
+            BenchmarkSupport.unmute();
+        }
+    }
+
+    private static void measure(Path directory, int orders, Computer computer) throws IOException {
+        Path logDirectory = directory.resolve("wal");
+        Path snapshotDirectory = directory.resolve("snapshots");
+        try (OrderWriteAheadLog log = OrderWriteAheadLog.open(logDirectory, DurabilityMode.TIMER)) {
+            ingest(new OrderManager(log), orders, computer);
+        }
+        long logBytes = BenchmarkSupport.sizeOf(logDirectory);
+
+        long logOnlyNanos;
+        BenchmarkSupport.usedHeap(); // start each restart from a collected heap
+        try (OrderWriteAheadLog log = OrderWriteAheadLog.open(logDirectory, DurabilityMode.TIMER)) {
+            long begin = System.nanoTime();
+            new OrderManager(log);
+            logOnlyNanos = System.nanoTime() - begin;
+        }
+
+        // Snapshot the recovered state, then write a tail that the next restart must replay
+        try (OrderWriteAheadLog log = OrderWriteAheadLog.open(logDirectory, DurabilityMode.TIMER)) {
+            OrderManager manager = new OrderManager(log, new OrderSnapshotStore(snapshotDirectory));
+            manager.takeSnapshot();
+            for (int i = 0; i < orders / 100 * TAIL_PERCENT; i++) {
+                Order order = manager.createOrder("tail-" + i, "t" + i + "@shop.md", computer);
+                manager.cancelOrder(order.getOrderId());
+            }
+        }
+        long snapshotBytes = BenchmarkSupport.sizeOf(snapshotDirectory);
+
+        long snapshotNanos;
+        BenchmarkSupport.usedHeap();
+        try (OrderWriteAheadLog log = OrderWriteAheadLog.open(logDirectory, DurabilityMode.TIMER)) {
+            long begin = System.nanoTime();
+            new OrderManager(log, new OrderSnapshotStore(snapshotDirectory));
+            snapshotNanos = System.nanoTime() - begin;
+        }
+
+        BenchmarkSupport.unmute();
+        BenchmarkSupport.report("%,12d %14.1f %14d %18d %14.1f", orders, logBytes / 1e6, logOnlyNanos / 1_000_000,
+                snapshotNanos / 1_000_000, snapshotBytes / 1e6);
+        BenchmarkSupport.mute();
+    }
+
+    private static void ingest(OrderManager manager, int orders, Computer computer) {
+        for (int from = 0; from < orders; from += CHUNK) {
+            int to = Math.min(orders, from + CHUNK);
+            List<OrderRequest> requests = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                requests.add(new OrderRequest("customer-" + i, "c" + i + "@shop.md", computer));
+            }
+            List<String> ids = new ArrayList<>(requests.size());
+            for (Order order : manager.createOrders(requests)) {
+                ids.add(order.getOrderId());
+            }
+            manager.confirmOrders(ids);
+            for (String id : ids) {
+                manager.processOrder(id);
+                manager.shipOrder(id);
+                manager.deliverOrder(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package md.utm.tmps.benchmark;
+
+import md.utm.tmps.domain.models.Computer;
+import md.utm.tmps.domain.models.ComputerFactory;
+import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.observer.OrderEvent;
+import md.utm.tmps.domain.observer.OrderEventListener;
+import md.utm.tmps.domain.observer.OrderManager;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// user-020: observer delivery through the ring buffer bus vs synchronous dispatch
+// Each producer drives its own orders through the full lifecycle (5 events per order) with three
+// cheap counting observers registered. A run ends when every observer has seen every event,
+// so the ring is timed including its drain. Synchronous dispatch also pays for its (muted)
+// console banner per event, as it does in production.
+// Allocation counts the producers and the ring's stage threads.
+// Args: [orders per producer = 50_000] [ring capacity = 8192]
+public final class RingDispatchBenchmark {
+    private static final int[] PRODUCERS = {1, 4, 16};
+    private static final int EVENTS_PER_ORDER = 5;
+    private static final int OBSERVERS = 3;
+
+    public static void main(String[] args) throws InterruptedException {
+        int ordersPerProducer = BenchmarkSupport.intArg(args, 0, 50_000);
+        int capacity = BenchmarkSupport.intArg(args, 1, 8192);
+        Computer computer = ComputerFactory.createOfficePC();
+
+        BenchmarkSupport.report("Ring vs sync dispatch: %,d orders per producer, %,d slots, %s",
+                ordersPerProducer, capacity, BenchmarkSupport.cpuLine());
+        BenchmarkSupport.report("%10s %14s %14s %16s %16s", "producers", "sync events/s", "ring events/s",
+                "sync bytes/event", "ring bytes/event");
+        BenchmarkSupport.mute();
+        try {
+            // Warm-up runs, not reported
+            measure(computer, 1, ordersPerProducer, 0);
+            measure(computer, 1, ordersPerProducer, capacity);
+            for (int producers : PRODUCERS) {
+                Result sync = measure(computer, producers, ordersPerProducer, 0);
+                Result ring = measure(computer, producers, ordersPerProducer, capacity);
+                BenchmarkSupport.unmute();
+                BenchmarkSupport.report("%10d %14.0f %14.0f %16.1f %16.1f", producers,
+                        sync.eventsPerSecond(), ring.eventsPerSecond(), sync.bytesPerEvent(), ring.bytesPerEvent());
+                BenchmarkSupport.mute();
+            }
+        } finally {
+            BenchmarkSupport.unmute();
+        }
+    }
+
+    // capacity 0 keeps synchronous dispatch
+    private static Result measure(Computer computer, int producers, int ordersPerProducer, int capacity)
+            throws InterruptedException {
+        OrderManager manager = new OrderManager();
+        CountingListener[] listeners = new CountingListener[OBSERVERS];
+        for (int i = 0; i < OBSERVERS; i++) {
+            listeners[i] = new CountingListener("Counter " + i);
+            manager.registerObserver(listeners[i]);
+        }
+        if (capacity > 0) {
+            manager.enableRingBufferDispatch(capacity, Map.of());
+        }
+        long events = (long) producers * ordersPerProducer * EVENTS_PER_ORDER;
+        LongAdder producerBytes = new LongAdder();
+        long sharedBytesBefore = BenchmarkSupport.allocatedBytesAllThreads();
+        long begin = System.nanoTime();
+        BenchmarkSupport.runConcurrently(producers, index -> {
+            long bytesBefore = BenchmarkSupport.allocatedBytes();
+            for (int i = 0; i < ordersPerProducer; i++) {
+                Order order = manager.createOrder("customer-" + index, "c" + index + "@shop.md", computer);
+                String id = order.getOrderId();
+                manager.confirmOrder(id);
+                manager.processOrder(id);
+                manager.shipOrder(id);
+                manager.deliverOrder(id);
+            }
+            producerBytes.add(BenchmarkSupport.allocatedBytes() - bytesBefore);
+        });
+        for (CountingListener listener : listeners) {
+            listener.awaitCount(events);
+        }
+        long nanos = System.nanoTime() - begin;
+        // Stage threads are still alive here, so their allocation is included
+        long sharedBytes = Math.max(0, BenchmarkSupport.allocatedBytesAllThreads() - sharedBytesBefore);
+        if (capacity > 0) {
+            manager.disableRingBufferDispatch(10, TimeUnit.SECONDS);
+        }
+        return new Result(BenchmarkSupport.perSecond(events, nanos),
+                (double) (producerBytes.sum() + sharedBytes) / events);
+    }
+
+    private record Result(double eventsPerSecond, double bytesPerEvent) {
+    }
+
+    private static final class CountingListener implements OrderEventListener {
+        private final String name;
+        private final LongAdder seen = new LongAdder();
+
+        CountingListener(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void onEvent(OrderEvent event) {
+            seen.increment();
+        }
+
+        void awaitCount(long expected) throws InterruptedException {
+            while (seen.sum() < expected) {
+                Thread.sleep(1);
+            }
+        }
+
+        @Override
+        public String getObserverName() {
+            return name;
+        }
+    }
+}
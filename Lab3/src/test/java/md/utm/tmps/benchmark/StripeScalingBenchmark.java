@@ -0,0 +1,56 @@
+package md.utm.tmps.benchmark;
+
+import md.utm.tmps.domain.models.Computer;
+import md.utm.tmps.domain.models.ComputerFactory;
+import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.observer.OrderManager;
+
+// user-001: lifecycle throughput of the lock-striped OrderManager from 1 to N threads
+// Each thread drives its own orders through create -> confirm -> process -> ship -> deliver,
+// so threads only meet on the shared map and the lock stripes.
+// Args: [orders per thread = 50_000] [max threads = 2 x available processors]
+public final class StripeScalingBenchmark {
+    private static final int OPERATIONS_PER_ORDER = 5;
+
+    public static void main(String[] args) throws InterruptedException {
+        int ordersPerThread = BenchmarkSupport.intArg(args, 0, 50_000);
+        int maxThreads = BenchmarkSupport.intArg(args, 1, 2 * Runtime.getRuntime().availableProcessors());
+        Computer computer = ComputerFactory.createOfficePC();
+
+        BenchmarkSupport.report("Stripe scaling: %,d orders per thread, %s", ordersPerThread, BenchmarkSupport.cpuLine());
+        BenchmarkSupport.report("%8s %14s %14s", "threads", "ops/s", "vs 1 thread");
+        BenchmarkSupport.mute();
+        try {
+            // Warm-up run, not reported
+            run(new OrderManager(), computer, 1, ordersPerThread);
+            double baseline = 0;
+            for (int threads : BenchmarkSupport.threadCounts(maxThreads)) {
+                long nanos = run(new OrderManager(), computer, threads, ordersPerThread);
+                double opsPerSecond = BenchmarkSupport.perSecond(
+                        (long) threads * ordersPerThread * OPERATIONS_PER_ORDER, nanos);
+                if (baseline == 0) {
+                    baseline = opsPerSecond;
+                }
+                BenchmarkSupport.unmute();
+                BenchmarkSupport.report("%8d %14.0f %13.2fx", threads, opsPerSecond, opsPerSecond / baseline);
+                BenchmarkSupport.mute();
+            }
+        } finally {
+            BenchmarkSupport.unmute();
+        }
+    }
+
+    private static long run(OrderManager manager, Computer computer, int threads, int ordersPerThread)
+            throws InterruptedException {
+        return BenchmarkSupport.runConcurrently(threads, index -> {
+            for (int i = 0; i < ordersPerThread; i++) {
+                Order order = manager.createOrder("customer-" + index, "c" + index + "@shop.md", computer);
+                String id = order.getOrderId();
+                manager.confirmOrder(id);
+                manager.processOrder(id);
+                manager.shipOrder(id);
+                manager.deliverOrder(id);
+            }
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package md.utm.tmps.domain.command;
+
+import md.utm.tmps.domain.models.ComputerFactory;
+import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.observer.OrderManager;
+import md.utm.tmps.domain.persistence.DurabilityMode;
+import md.utm.tmps.domain.strategy.PricingContext;
+import md.utm.tmps.domain.strategy.RegularPricingStrategy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandJournalTest {
+    @TempDir
+    Path journalDirectory;
+
+    @Test
+    @DisplayName("✅ Journal: replaying a rolled-back macro rebuilds exactly the live state")
+    void testReplayOfRejectedMacroMatchesLive() throws Exception {
+        OrderManager live = new OrderManager();
+        OrderCommandInvoker invoker = new OrderCommandInvoker();
+        try (CommandJournal journal = CommandJournal.open(journalDirectory, DurabilityMode.PER_BATCH)) {
+            invoker.setJournal(journal);
+
+            PlaceOrderCommand placeCancelled = place(live, "Cara");
+            invoker.executeCommand(placeCancelled);
+            String cancelledId = placeCancelled.getCreatedOrder().getOrderId();
+            invoker.executeCommand(new CancelOrderCommand(live, cancelledId));
+
+            // Step 2 is illegal (a cancelled order cannot ship), so the macro rolls back:
+            // A was placed and is cancelled again, B never ran
+            PlaceOrderCommand placeA = place(live, "Ana");
+            PlaceOrderCommand placeB = place(live, "Bogdan");
+            boolean applied = invoker.executeBatch(live, List.of(placeA,
+                    new UpdateOrderStatusCommand(live, cancelledId, Order.OrderStatus.SHIPPED), placeB));
+
+            assertFalse(applied);
+            assertNull(placeB.getCreatedOrder());
+            assertEquals(Order.OrderStatus.CANCELLED, live.getOrder(placeA.getCreatedOrder().getOrderId()).getStatus());
+            // Every record was forced before its command's future completed
+            assertEquals(journal.getLog().getWrittenLsn(), journal.getLog().getDurableLsn());
+
+            OrderManager rebuilt = new OrderManager();
+            new OrderCommandInvoker().replay(journal, rebuilt);
+
+            assertEquals(2, live.getAllOrders().size());
+            assertEquals(state(live), state(rebuilt));
+        } finally {
+            invoker.shutdown(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static PlaceOrderCommand place(OrderManager manager, String customer) {
+        return new PlaceOrderCommand(manager, customer, customer.toLowerCase() + "@shop.md",
+                ComputerFactory.createOfficePC(), new PricingContext(new RegularPricingStrategy()));
+    }
+
+    // Order id -> status and final price
+    private static Map<String, String> state(OrderManager manager) {
+        Map<String, String> state = new TreeMap<>();
+        for (Order order : manager.getAllOrders()) {
+            state.put(order.getOrderId(), order.getStatus() + " " + order.getFinalPrice());
+        }
+        return state;
+    }
+}
@@ -0,0 +1,213 @@
+package md.utm.tmps.domain.command;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderCommandInvokerTest {
+    private static final int WORKERS = 4;
+    private static final int ORDERS = 8;
+    private static final int PRODUCERS = 16;
+    private static final int COMMANDS_PER_PRODUCER = 1_000;
+    // Every so often a producer's command spans two orders, like a macro
+    private static final int JOINT_EVERY = 25;
+
+    private final PrintStream console = System.out;
+    private ExecutorService workers;
+    private OrderCommandInvoker invoker;
+
+    @BeforeEach
+    void setUp() {
+        // The invoker announces every command; a few thousand banners would drown the test report
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        workers = Executors.newFixedThreadPool(WORKERS, runnable -> {
+            Thread thread = new Thread(runnable, "test-command-worker");
+            thread.setDaemon(true);
+            // The Error test kills a worker on purpose; keep its stack trace out of the report
+            thread.setUncaughtExceptionHandler((t, e) -> { });
+            return thread;
+        });
+        invoker = new OrderCommandInvoker(workers, UndoHistory.inMemory(16, 1 << 20), 16);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        invoker.shutdown(5, TimeUnit.SECONDS);
+        System.setOut(console);
+    }
+
+    @Test
+    @DisplayName("✅ Mailboxes: many producers per order, each order applies commands one at a time in submission order")
+    void testPerOrderOrderingUnderContention() throws Exception {
+        Map<String, OrderTrace> traces = new HashMap<>();
+        for (int i = 0; i < ORDERS; i++) {
+            traces.put("ORD-" + i, new OrderTrace());
+        }
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            List<CompletableFuture<Boolean>> submitted = new ArrayList<>(COMMANDS_PER_PRODUCER);
+            Thread thread = new Thread(() -> {
+                awaitQuietly(start);
+                for (int k = 0; k < COMMANDS_PER_PRODUCER; k++) {
+                    List<String> orderIds = new ArrayList<>(2);
+                    orderIds.add("ORD-" + (producer + k) % ORDERS);
+                    if (k % JOINT_EVERY == 0) {
+                        orderIds.add("ORD-" + (producer + k + 1) % ORDERS);
+                    }
+                    submitted.add(invoker.executeAsync(new SequenceCommand(orderIds, producer, k, traces)));
+                }
+                synchronized (results) {
+                    results.addAll(submitted);
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+
+        long applied = 0;
+        for (Map.Entry<String, OrderTrace> entry : traces.entrySet()) {
+            OrderTrace trace = entry.getValue();
+            assertEquals(0, trace.overlaps.get(), "Commands overlapped on " + entry.getKey());
+            int[] lastSequence = new int[PRODUCERS];
+            Arrays.fill(lastSequence, -1);
+            for (int[] step : trace.applied) {
+                int producer = step[0];
+                int sequence = step[1];
+                assertTrue(sequence > lastSequence[producer], String.format(
+                        "%s applied producer %d's command %d after %d", entry.getKey(), producer, sequence,
+                        lastSequence[producer]));
+                lastSequence[producer] = sequence;
+            }
+            applied += trace.applied.size();
+        }
+        long joint = (long) PRODUCERS * ((COMMANDS_PER_PRODUCER + JOINT_EVERY - 1) / JOINT_EVERY);
+        assertEquals((long) PRODUCERS * COMMANDS_PER_PRODUCER + joint, applied);
+    }
+
+    @Test
+    @DisplayName("✅ Mailboxes: an Error thrown by a command does not leave the order stuck")
+    void testErrorDoesNotStickMailbox() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocker = invoker.executeAsync(new TestCommand("ORD-1", () -> awaitQuietly(gate)));
+        CompletableFuture<Boolean> failing = invoker.executeAsync(new TestCommand("ORD-1", () -> {
+            throw new Error("simulated failure");
+        }));
+        AtomicInteger ranAfter = new AtomicInteger();
+        CompletableFuture<Boolean> next = invoker.executeAsync(new TestCommand("ORD-1", ranAfter::incrementAndGet));
+        gate.countDown();
+
+        assertTrue(blocker.get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertEquals("simulated failure", failure.getCause().getMessage());
+        assertTrue(next.get(5, TimeUnit.SECONDS));
+        assertEquals(1, ranAfter.get());
+
+        // The mailbox retired, so a new command still gets a worker
+        assertTrue(invoker.executeAsync(new TestCommand("ORD-1", ranAfter::incrementAndGet)).get(5, TimeUnit.SECONDS));
+        assertEquals(2, ranAfter.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // What ran on one order; only touched from that order's mailbox
+    private static final class OrderTrace {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger overlaps = new AtomicInteger();
+        private final List<int[]> applied = new ArrayList<>();
+    }
+
+    private record SequenceCommand(List<String> orderIds, int producer, int sequence,
+                                   Map<String, OrderTrace> traces) implements OrderCommand {
+        @Override
+        public void execute() {
+            for (String orderId : orderIds) {
+                OrderTrace trace = traces.get(orderId);
+                if (trace.running.incrementAndGet() != 1) {
+                    trace.overlaps.incrementAndGet();
+                }
+            }
+            for (String orderId : orderIds) {
+                traces.get(orderId).applied.add(new int[] {producer, sequence});
+            }
+            Thread.yield();
+            for (String orderId : orderIds) {
+                traces.get(orderId).running.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void undo() {
+        }
+
+        @Override
+        public String getCommandName() {
+            return "Sequence " + producer + "/" + sequence;
+        }
+
+        @Override
+        public boolean isReversible() {
+            return false;
+        }
+
+        @Override
+        public List<String> getOrderIds() {
+            return orderIds;
+        }
+    }
+
+    private record TestCommand(String orderId, Runnable action) implements OrderCommand {
+        @Override
+        public void execute() {
+            action.run();
+        }
+
+        @Override
+        public void undo() {
+        }
+
+        @Override
+        public String getCommandName() {
+            return "Test command";
+        }
+
+        @Override
+        public boolean isReversible() {
+            return false;
+        }
+
+        @Override
+        public String getOrderId() {
+            return orderId;
+        }
+    }
+}
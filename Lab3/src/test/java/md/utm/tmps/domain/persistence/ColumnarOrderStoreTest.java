@@ -0,0 +1,84 @@
+package md.utm.tmps.domain.persistence;
+
+import md.utm.tmps.domain.models.Computer;
+import md.utm.tmps.domain.models.ComputerFactory;
+import md.utm.tmps.domain.models.Order;
+import md.utm.tmps.domain.observer.OrderManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.lang.ref.Reference;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarOrderStoreTest {
+    // Just under four full slot chunks, and short of the next index doubling
+    private static final int ORDERS = 250_000;
+    private static final Computer[] COMPUTERS = {
+            ComputerFactory.createOfficePC(), ComputerFactory.createGamingComputer()
+    };
+
+    @Test
+    @DisplayName("✅ Columnar store: at least 5x less memory per order than the heap store")
+    void testMemoryPerOrder() {
+        // Warm up both paths so class loading does not land in the measurement
+        fill(new HeapOrderStore(), 1_000);
+        fill(new ColumnarOrderStore(), 1_000);
+
+        long before = usedHeap();
+        OrderStore heapStore = new HeapOrderStore();
+        fill(heapStore, ORDERS);
+        double heapPerOrder = (double) (usedHeap() - before) / ORDERS;
+        Reference.reachabilityFence(heapStore);
+        heapStore = null;
+
+        before = usedHeap();
+        ColumnarOrderStore columnarStore = new ColumnarOrderStore();
+        fill(columnarStore, ORDERS);
+        double columnarPerOrder = (double) (usedHeap() - before + columnarStore.offHeapBytes()) / ORDERS;
+        Reference.reachabilityFence(columnarStore);
+
+        System.out.printf("   📏 Heap store %.1f B/order, columnar store %.1f B/order (%.1fx)\n",
+                heapPerOrder, columnarPerOrder, heapPerOrder / columnarPerOrder);
+        assertTrue(heapPerOrder >= 5 * columnarPerOrder,
+                String.format("heap %.1f B/order vs columnar %.1f B/order", heapPerOrder, columnarPerOrder));
+    }
+
+    @Test
+    @DisplayName("✅ Columnar store: OrderManager keeps status and pricing in the store")
+    void testOrderManagerOnColumnarStore() {
+        ColumnarOrderStore store = new ColumnarOrderStore();
+        OrderManager manager = new OrderManager(null, null, store);
+        Order order = manager.createOrder("Ana", "ana@shop.md", COMPUTERS[0]);
+        String orderId = order.getOrderId();
+
+        assertTrue(manager.confirmOrder(orderId));
+        assertTrue(manager.processOrder(orderId));
+        assertFalse(manager.confirmOrder(orderId));
+
+        Order stored = manager.getOrder(orderId);
+        assertNotSame(order, stored);
+        assertEquals(Order.OrderStatus.PROCESSING, stored.getStatus());
+        assertEquals(1, manager.findByStatus(Order.OrderStatus.PROCESSING, null, 10).orders().size());
+        assertEquals(1, store.size());
+    }
+
+    // Customers repeat, as they do in real order streams; every order gets its own strings
+    private static void fill(OrderStore store, int count) {
+        for (int i = 0; i < count; i++) {
+            int customer = i % 5_000;
+            Order order = new Order("customer-" + customer, "customer" + customer + "@shop.md", COMPUTERS[i % 2]);
+            order.transitionTo(Order.OrderStatus.CONFIRMED);
+            order.setFinalPrice(999.5);
+            order.setDiscountApplied("None");
+            order.setPricingStrategy("Regular");
+            store.put(order);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}